@@ -0,0 +1,37 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.benchmarks;
+
+import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@State(Scope.Benchmark)
+public class BusinessBenchmark {
+    @Param({"json", "streaming"})
+    public String parser;
+
+    @Param({"business-with-hours-and-photos", "business-without-hours-and-photos"})
+    public String payload;
+
+    private Parser instance;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        instance = Corpus.parser(parser);
+        response = new String(Corpus.bytes(payload), UTF_8);
+    }
+
+    @Benchmark
+    public BusinessDetails business() {
+        return instance.business(response);
+    }
+}
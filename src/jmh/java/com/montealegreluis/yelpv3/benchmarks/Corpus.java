@@ -0,0 +1,48 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.benchmarks;
+
+import com.montealegreluis.yelpv3.jsonparser.JSONParser;
+import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.streamingparser.StreamingParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Realistic Yelp payloads checked in under <code>src/jmh/resources/corpus</code>
+ */
+final class Corpus {
+    static byte[] bytes(String payload) {
+        try (InputStream input = Corpus.class.getResourceAsStream(String.format("/corpus/%s.json", payload))) {
+            if (input == null) throw new IllegalArgumentException(String.format("Unknown payload %s", payload));
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) output.write(buffer, 0, read);
+            return output.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Every <code>Parser</code> implementation shipped with the library
+     */
+    static Parser parser(String name) {
+        switch (name) {
+            case "json":
+                return new JSONParser();
+            case "streaming":
+                return new StreamingParser();
+            default:
+                throw new IllegalArgumentException(String.format("Unknown parser %s", name));
+        }
+    }
+
+    private Corpus() {
+    }
+}
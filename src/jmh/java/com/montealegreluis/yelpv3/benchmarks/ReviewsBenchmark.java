@@ -0,0 +1,42 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.benchmarks;
+
+import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.reviews.Review;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@State(Scope.Benchmark)
+public class ReviewsBenchmark {
+    @Param({"json", "streaming"})
+    public String parser;
+
+    private Parser instance;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        instance = Corpus.parser(parser);
+        response = new String(Corpus.bytes("reviews"), UTF_8);
+    }
+
+    @Benchmark
+    public List<Review> reviews() {
+        return instance.reviews(response);
+    }
+
+    @Benchmark
+    public void reviewsToConsumer(Blackhole consumer) {
+        instance.reviews(response, consumer::consume);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.benchmarks;
+
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@State(Scope.Benchmark)
+public class SearchResultBenchmark {
+    @Param({"json", "streaming"})
+    public String parser;
+
+    @Param({"search-1", "search-20", "search-50"})
+    public String payload;
+
+    private Parser instance;
+    private byte[] bytes;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        instance = Corpus.parser(parser);
+        bytes = Corpus.bytes(payload);
+        response = new String(bytes, UTF_8);
+    }
+
+    @Benchmark
+    public SearchResult searchResult() {
+        return instance.searchResult(response);
+    }
+
+    @Benchmark
+    public SearchResult searchResultFromBytes() {
+        return instance.searchResult(bytes);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.benchmarks;
+
+import com.montealegreluis.yelpv3.client.AccessToken;
+import com.montealegreluis.yelpv3.parser.Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@State(Scope.Benchmark)
+public class TokenBenchmark {
+    @Param({"json", "streaming"})
+    public String parser;
+
+    private Parser instance;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        instance = Corpus.parser(parser);
+        response = new String(Corpus.bytes("token"), UTF_8);
+    }
+
+    @Benchmark
+    public AccessToken token() {
+        return instance.token(response);
+    }
+}
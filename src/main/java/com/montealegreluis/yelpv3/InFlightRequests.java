@@ -0,0 +1,197 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Concurrent calls for the same URI share a single upstream request and its parsed result
+ * <p>
+ * The first caller sends the request, callers arriving while it is in flight wait for its
+ * result. Once it completes, the next call sends a new request
+ * <p>
+ * A request abandoned because its sender's deadline expired is not a failure for the callers
+ * waiting for it, one of them sends it again
+ */
+class InFlightRequests {
+    private final ConcurrentMap<URI, Flight<?>> flights = new ConcurrentHashMap<>();
+
+    <T> T join(URI uri, Supplier<T> request) {
+        return join(uri, null, request);
+    }
+
+    /**
+     * Callers sharing a request wait for it up to their own deadline
+     */
+    <T> T join(URI uri, Deadline deadline, Supplier<T> request) {
+        while (true) {
+            Flight<T> flight = new Flight<>();
+            Flight<T> inFlight = claim(uri, flight);
+            if (inFlight == null) return send(uri, deadline, flight, request);
+            try {
+                return inFlight.await(uri, deadline);
+            } catch (Abandoned e) {
+                // The sender's deadline expired, this caller may still have time
+            }
+        }
+    }
+
+    private <T> T send(URI uri, Deadline deadline, Flight<T> flight, Supplier<T> request) {
+        flight.subscribers.incrementAndGet();
+        try {
+            T result = request.get();
+            flight.result.complete(result);
+            return result;
+        } catch (DeadlineExceeded e) {
+            flight.result.completeExceptionally(deadline != null ? Abandoned.INSTANCE : e);
+            throw e;
+        } catch (RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(uri, flight);
+        }
+    }
+
+    /**
+     * The shared request is cancelled only once every caller waiting for it has cancelled its
+     * own future
+     */
+    <T> CompletableFuture<T> joinAsync(URI uri, Supplier<CompletableFuture<T>> request) {
+        Flight<T> flight = new Flight<>();
+        Flight<T> inFlight = claim(uri, flight);
+        if (inFlight != null) return follow(uri, inFlight, request);
+
+        CompletableFuture<T> subscription = flight.subscribe();
+        CompletableFuture<T> exchange;
+        try {
+            exchange = request.get();
+        } catch (RuntimeException e) {
+            flights.remove(uri, flight);
+            flight.result.completeExceptionally(e);
+            return subscription;
+        }
+        flight.result.whenComplete((result, error) -> {
+            flights.remove(uri, flight);
+            if (flight.result.isCancelled()) exchange.cancel(true);
+        });
+        exchange.whenComplete((result, error) -> {
+            if (error == null) flight.result.complete(result);
+            else flight.result.completeExceptionally(unwrap(error));
+        });
+        return subscription;
+    }
+
+    /**
+     * Flights already completed, or cancelled by their last subscriber, are replaced
+     *
+     * @return <code>null</code> if <code>flight</code> was claimed, the flight in progress otherwise
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Flight<T> claim(URI uri, Flight<T> flight) {
+        Flight<?>[] inFlight = new Flight<?>[1];
+        flights.compute(uri, (key, current) -> {
+            if (current == null || current.result.isDone()) return flight;
+            inFlight[0] = current;
+            return current;
+        });
+        return (Flight<T>) inFlight[0];
+    }
+
+    /**
+     * Subscribes to a flight in progress, and sends the request again if its sender abandons it
+     */
+    private <T> CompletableFuture<T> follow(URI uri, Flight<T> flight, Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> subscription = flight.subscribe();
+        CompletableFuture<T> follower = new CompletableFuture<>();
+        subscription.whenComplete((value, error) -> {
+            if (error == null) follower.complete(value);
+            else if (unwrap(error) instanceof Abandoned) relay(joinAsync(uri, request), follower);
+            else follower.completeExceptionally(unwrap(error));
+        });
+        follower.whenComplete((value, error) -> {
+            if (follower.isCancelled()) subscription.cancel(true);
+        });
+        return follower;
+    }
+
+    private static <T> void relay(CompletableFuture<T> from, CompletableFuture<T> to) {
+        from.whenComplete((value, error) -> {
+            if (error == null) to.complete(value);
+            else to.completeExceptionally(unwrap(error));
+        });
+        to.whenComplete((value, error) -> {
+            if (to.isCancelled()) from.cancel(true);
+        });
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error
+        ;
+    }
+
+    /**
+     * Completes a flight whose sender gave up, so that its subscribers send the request again
+     */
+    private static class Abandoned extends RuntimeException {
+        private static final Abandoned INSTANCE = new Abandoned();
+
+        private Abandoned() {
+            super("Request abandoned by its sender", null, false, false);
+        }
+    }
+
+    private static class Flight<T> {
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger subscribers = new AtomicInteger();
+
+        private T await(URI uri, Deadline deadline) {
+            subscribers.incrementAndGet();
+            try {
+                return deadline == null
+                    ? result.get()
+                    : result.get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                ;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Abandoned) throw Abandoned.INSTANCE;
+                if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                throw new CompletionException(e.getCause());
+            } catch (TimeoutException e) {
+                throw DeadlineExceeded.forRequest(uri, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw DeadlineExceeded.interrupted(uri, e);
+            } finally {
+                subscribers.decrementAndGet();
+            }
+        }
+
+        private CompletableFuture<T> subscribe() {
+            subscribers.incrementAndGet();
+            CompletableFuture<T> subscription = new CompletableFuture<>();
+            result.whenComplete((value, error) -> {
+                if (error == null) subscription.complete(value);
+                else subscription.completeExceptionally(unwrap(error));
+            });
+            subscription.whenComplete((value, error) -> {
+                if (subscription.isCancelled() && subscribers.decrementAndGet() == 0) result.cancel(true);
+            });
+            return subscription;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.client.AccessToken;
+import com.montealegreluis.yelpv3.client.Credentials;
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import com.montealegreluis.yelpv3.client.YelpURIs;
+import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.tokens.TokenStore;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.AUTHENTICATION;
+
+/**
+ * Only one request to <code>/oauth2/token</code> is in flight at any time, every caller that
+ * needs a token while it's in flight shares its result
+ * <p>
+ * A token that is about to expire is still used, while a new one is requested in the background.
+ * Callers only wait for Yelp if there's no token yet, or if it already expired
+ */
+class TokenRefresher {
+    private static final long REFRESH_AHEAD_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+    private static final long RETRY_AFTER_FAILURE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private final Credentials credentials;
+    private final YelpClient yelpClient;
+    private final Parser parser;
+    private final YelpURIs uris;
+    private final TokenStore store;
+    private final AtomicReference<CompletableFuture<AccessToken>> refreshing = new AtomicReference<>();
+    private volatile long nextBackgroundRefresh = 0;
+
+    TokenRefresher(Credentials credentials, YelpClient yelpClient, Parser parser, YelpURIs uris) {
+        this(credentials, yelpClient, parser, uris, null);
+    }
+
+    /**
+     * A stored token is used if the credentials don't have a valid one. Failures to read or
+     * write the store are ignored, a new token is requested from Yelp instead
+     */
+    TokenRefresher(
+        Credentials credentials,
+        YelpClient yelpClient,
+        Parser parser,
+        YelpURIs uris,
+        TokenStore store
+    ) {
+        this.credentials = credentials;
+        this.yelpClient = yelpClient;
+        this.parser = parser;
+        this.uris = uris;
+        this.store = store;
+        if (store != null && credentials.isTokenExpired()) restoreToken();
+    }
+
+    AccessToken current() {
+        AccessToken token = credentials.token();
+        if (isUsable(token)) return token;
+
+        try {
+            return refresh().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for a new token up to the given deadline, if there's no valid token
+     */
+    AccessToken current(Deadline deadline) {
+        AccessToken token = credentials.token();
+        if (isUsable(token)) return token;
+
+        try {
+            return refresh().get(deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            throw DeadlineExceeded.forRequest(uris.authentication(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DeadlineExceeded.interrupted(uris.authentication(), e);
+        }
+    }
+
+    CompletableFuture<AccessToken> currentAsync() {
+        AccessToken token = credentials.token();
+        return isUsable(token) ? CompletableFuture.completedFuture(token) : refresh();
+    }
+
+    /**
+     * A valid token that expires soon triggers a refresh, unless the last background refresh
+     * failed a few seconds ago
+     */
+    private boolean isUsable(AccessToken token) {
+        if (token == null || token.isExpired()) return false;
+
+        boolean expiresSoon = token.expiresOn() - Instant.now().getEpochSecond() < REFRESH_AHEAD_SECONDS;
+        if (expiresSoon && System.currentTimeMillis() >= nextBackgroundRefresh) refresh();
+        return true;
+    }
+
+    private CompletableFuture<AccessToken> refresh() {
+        while (true) {
+            CompletableFuture<AccessToken> inFlight = refreshing.get();
+            if (inFlight != null) return inFlight;
+
+            CompletableFuture<AccessToken> refresh = new CompletableFuture<>();
+            if (refreshing.compareAndSet(null, refresh)) {
+                authenticate(refresh);
+                return refresh;
+            }
+        }
+    }
+
+    /**
+     * The new token is published before the in flight refresh is cleared, so that callers never
+     * start a second refresh because they read the previous token
+     */
+    private void authenticate(CompletableFuture<AccessToken> refresh) {
+        CompletableFuture<RawResponse> response;
+        try {
+            response = yelpClient.sendAsync(authenticationRequest());
+        } catch (RuntimeException e) {
+            response = new CompletableFuture<>();
+            response.completeExceptionally(e);
+        }
+        response.thenApply(this::parseToken).whenComplete((token, error) -> {
+            if (error == null) {
+                credentials.updateToken(token);
+                storeToken(token);
+            } else nextBackgroundRefresh = System.currentTimeMillis() + RETRY_AFTER_FAILURE_MILLIS;
+            refreshing.set(null);
+
+            if (error == null) refresh.complete(token);
+            else refresh.completeExceptionally(
+                error instanceof CompletionException && error.getCause() != null ? error.getCause() : error
+            );
+        });
+    }
+
+    private void restoreToken() {
+        try {
+            AccessToken stored = store.load();
+            if (stored != null && !stored.isExpired()) credentials.updateToken(stored);
+        } catch (RuntimeException ignored) {
+            // A corrupt or unreadable store is the same as an empty one
+        }
+    }
+
+    private void storeToken(AccessToken token) {
+        if (store == null) return;
+        try {
+            store.save(token);
+        } catch (RuntimeException ignored) {
+            // The new token is still used, it will be saved again on the next refresh
+        }
+    }
+
+    private AccessToken parseToken(RawResponse response) {
+        try (RawResponse body = response) {
+            return parser.token(body.bodyStream());
+        }
+    }
+
+    private YelpRequest authenticationRequest() {
+        return YelpRequest.post(AUTHENTICATION, uris.authentication(), credentials.toMap());
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.apacheclient.ApacheAsyncHttpClient;
+import com.montealegreluis.yelpv3.apacheclient.ApacheHttpClient;
+import com.montealegreluis.yelpv3.apacheclient.ConnectionPoolSettings;
+import com.montealegreluis.yelpv3.client.YelpClient;
+
+/**
+ * HTTP clients available out of the box
+ * <p>
+ * <ul>
+ * <li><code>HTTP_1_1</code> uses a pool of Apache HTTP client connections</li>
+ * <li><code>HTTP_1_1_ASYNC</code> uses a pool of non-blocking Apache HTTP client connections,
+ * asynchronous calls don't block a thread per request in flight</li>
+ * <li><code>HTTP_2</code> uses the JDK HTTP client, it requires Java 11 or newer</li>
+ * </ul>
+ */
+public enum Transport {
+    HTTP_1_1 {
+        @Override
+        YelpClient newClient() {
+            return ApacheHttpClient.pooled(ConnectionPoolSettings.defaults());
+        }
+    },
+    HTTP_1_1_ASYNC {
+        @Override
+        YelpClient newClient() {
+            return ApacheAsyncHttpClient.pooled(ConnectionPoolSettings.defaults());
+        }
+    },
+    HTTP_2 {
+        /**
+         * The core of this library targets Java 8, the JDK client is loaded only when requested
+         */
+        @Override
+        YelpClient newClient() {
+            try {
+                return (YelpClient) Class
+                    .forName("com.montealegreluis.yelpv3.jdkclient.JdkHttpClient")
+                    .getMethod("http2")
+                    .invoke(null)
+                ;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                throw UnsupportedTransport.of(this, e);
+            }
+        }
+    };
+
+    abstract YelpClient newClient();
+}
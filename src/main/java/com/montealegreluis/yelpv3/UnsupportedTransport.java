@@ -0,0 +1,22 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+/**
+ * Exception thrown when a transport cannot be used in the current JVM
+ * <p>
+ * For instance, <code>HTTP_2</code> needs Java 11 or newer
+ */
+public class UnsupportedTransport extends RuntimeException {
+    private UnsupportedTransport(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public static UnsupportedTransport of(Transport transport, Throwable cause) {
+        return new UnsupportedTransport(
+            String.format("Transport %s is not available in this JVM", transport),
+            cause
+        );
+    }
+}
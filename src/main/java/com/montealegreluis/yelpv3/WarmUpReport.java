@@ -0,0 +1,38 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import java.time.Duration;
+
+/**
+ * Outcome of <code>Yelp.warmUp</code>
+ */
+public class WarmUpReport {
+    private final int connections;
+    private final Duration elapsed;
+
+    WarmUpReport(int connections, Duration elapsed) {
+        this.connections = connections;
+        this.elapsed = elapsed;
+    }
+
+    /**
+     * Connections to Yelp ready to be used, clients that cannot be warmed up report none
+     */
+    public int connections() {
+        return connections;
+    }
+
+    /**
+     * Time spent opening connections and getting a token
+     */
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d connections ready in %d ms", connections, elapsed.toMillis());
+    }
+}
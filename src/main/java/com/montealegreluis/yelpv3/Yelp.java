@@ -3,24 +3,57 @@
  */
 package com.montealegreluis.yelpv3;
 
-import com.montealegreluis.yelpv3.apacheclient.ApacheHttpClient;
+import com.montealegreluis.yelpv3.businesses.Business;
+import com.montealegreluis.yelpv3.businesses.BusinessField;
+import com.montealegreluis.yelpv3.businesses.BusinessProjection;
+import com.montealegreluis.yelpv3.businesses.Businesses;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
 import com.montealegreluis.yelpv3.client.*;
 import com.montealegreluis.yelpv3.jsonparser.JSONParser;
 import com.montealegreluis.yelpv3.parser.Parser;
 import com.montealegreluis.yelpv3.search.SearchCriteria;
-import org.apache.http.impl.client.HttpClientBuilder;
+import com.montealegreluis.yelpv3.tokens.TokenStore;
 
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.*;
+
+/**
+ * Concurrent calls for the same business, reviews or identical search criteria share a single
+ * request to Yelp and its parsed response. Searches projecting a set of fields are not shared
+ */
 public class Yelp {
     private final Credentials credentials;
     private final YelpClient yelpClient;
     private final Parser parser;
+    private final YelpURIs uris;
+    private final boolean retainOriginalResponses;
+    private final TokenRefresher tokens;
+    private final InFlightRequests inFlight = new InFlightRequests();
 
     public Yelp(Credentials credentials) {
-        this(
-            credentials,
-            new ApacheHttpClient(HttpClientBuilder.create().build(), new YelpURIs()),
-            new JSONParser()
-        );
+        this(credentials, Transport.HTTP_1_1);
+    }
+
+    /**
+     * Use <code>Transport.HTTP_2</code> to multiplex concurrent requests over a single
+     * connection
+     */
+    public Yelp(Credentials credentials, Transport transport) {
+        this(credentials, transport.newClient(), new JSONParser());
     }
 
     public Yelp(Credentials credentials, YelpClient yelpClient) {
@@ -28,34 +61,396 @@ public class Yelp {
     }
 
     public Yelp(Credentials credentials, YelpClient yelpClient, Parser parser) {
-        this.credentials = credentials;
-        this.yelpClient = yelpClient;
-        this.parser = parser;
+        this(
+            credentials,
+            yelpClient,
+            parser,
+            new TokenRefresher(credentials, yelpClient, parser, new YelpURIs()),
+            false
+        );
+    }
+
+    /**
+     * By default response bodies are parsed straight from the connection, and the original JSON
+     * is discarded
+     * <p>
+     * Use the facade returned by this method if you need <code>originalResponse()</code>, for
+     * instance, to use this library as a proxy
+     */
+    public Yelp retainingOriginalResponses() {
+        return new Yelp(credentials, yelpClient, parser, tokens, true);
+    }
+
+    /**
+     * The token in the store is used, if it's valid and the credentials don't have one. Every new
+     * token is saved to the store, so that other instances can start with it
+     */
+    public Yelp withTokenStore(TokenStore store) {
+        return new Yelp(
+            credentials,
+            yelpClient,
+            parser,
+            new TokenRefresher(credentials, yelpClient, parser, uris, store),
+            retainOriginalResponses
+        );
     }
 
     public SearchResponse search(SearchCriteria criteria) {
-        yelpClient.allBusinessesMatching(criteria, token().accessToken());
-        return SearchResponse.fromOriginalResponse(yelpClient.responseBody());
+        URI uri = uris.searchBy(criteria);
+        return inFlight.join(uri, () -> read(
+            get(SEARCH, uri),
+            body -> SearchResponse.fromOriginalResponse(body, parser),
+            body -> SearchResponse.fromSearchResult(parser.searchResult(body))
+        ));
+    }
+
+    /**
+     * Fails with <code>DeadlineExceeded</code> if there's no response before the deadline
+     */
+    public SearchResponse search(SearchCriteria criteria, Deadline deadline) {
+        URI uri = uris.searchBy(criteria);
+        return inFlight.join(uri, deadline, () -> read(
+            uri,
+            deadline,
+            get(SEARCH, uri, deadline),
+            body -> SearchResponse.fromOriginalResponse(body, parser),
+            body -> SearchResponse.fromSearchResult(parser.searchResult(body))
+        ));
+    }
+
+    /**
+     * Businesses in the search result with only the given fields, the rest of their values are
+     * skipped by parsers that support it
+     * <p>
+     * <code>yelp.search(criteria, EnumSet.of(ID, NAME, COORDINATES, RATING))</code>
+     */
+    public List<BusinessProjection> search(SearchCriteria criteria, Set<BusinessField> fields) {
+        try (RawResponse response = get(SEARCH, uris.searchBy(criteria))) {
+            return parser.businesses(response.bodyStream(), fields);
+        }
+    }
+
+    public SearchResult searchAll(SearchCriteria criteria) {
+        return searchAll(criteria, 4);
+    }
+
+    /**
+     * Every business matching the criteria, from its offset up to the 1,000 businesses Yelp can
+     * page through. Once the first page reveals the total, the remaining pages are fetched
+     * concurrently, <code>parallelism</code> at a time
+     * <p>
+     * Businesses are merged in rank order. A business that moves to a later page while the pages
+     * are fetched is only kept the first time it appears
+     */
+    public SearchResult searchAll(SearchCriteria criteria, int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("At least one page should be fetched at a time");
+
+        SearchResult first = search(criteria).searchResult();
+        SearchResult[] results = new PageFetches(criteria.nextPages(first.total)).fetch(parallelism);
+
+        return new SearchResult(first.total, merge(first, results), first.region);
+    }
+
+    /**
+     * Each worker fetches pages one after the other until there are none left, or one of them
+     * fails. Once a page fails, the pages still in flight are cancelled
+     * <p>
+     * Pages that are already complete when they are returned are collected in a loop, so that a
+     * blocking client doesn't nest a call per page
+     */
+    private class PageFetches {
+        private final List<SearchCriteria> pages;
+        private final SearchResult[] results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Queue<CompletableFuture<SearchResponse>> outstanding = new ConcurrentLinkedQueue<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private PageFetches(List<SearchCriteria> pages) {
+            this.pages = pages;
+            this.results = new SearchResult[pages.size()];
+        }
+
+        private SearchResult[] fetch(int parallelism) {
+            CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(parallelism, pages.size())];
+            for (int i = 0; i < workers.length; i++) {
+                CompletableFuture<Void> worker = new CompletableFuture<>();
+                workers[i] = worker;
+                fetchNext(worker);
+            }
+            CompletableFuture.allOf(workers).join();
+
+            Throwable error = failure.get();
+            if (error == null) return results;
+            if (error instanceof RuntimeException) throw (RuntimeException) error;
+            throw new CompletionException(error);
+        }
+
+        private void fetchNext(CompletableFuture<Void> worker) {
+            while (true) {
+                int page = next.getAndIncrement();
+                if (page >= pages.size()) {
+                    worker.complete(null);
+                    return;
+                }
+
+                CompletableFuture<SearchResponse> fetch;
+                try {
+                    fetch = searchAsync(pages.get(page));
+                } catch (RuntimeException e) {
+                    fail(e, worker);
+                    return;
+                }
+                outstanding.add(fetch);
+                if (failure.get() != null) fetch.cancel(true);
+
+                if (!fetch.isDone()) {
+                    fetch.whenComplete((response, error) -> {
+                        if (collect(page, fetch, worker)) fetchNext(worker);
+                    });
+                    return;
+                }
+                if (!collect(page, fetch, worker)) return;
+            }
+        }
+
+        private boolean collect(int page, CompletableFuture<SearchResponse> fetch, CompletableFuture<Void> worker) {
+            try {
+                results[page] = fetch.join().searchResult();
+                return true;
+            } catch (RuntimeException e) {
+                fail(unwrap(e), worker);
+                return false;
+            }
+        }
+
+        private void fail(Throwable error, CompletableFuture<Void> worker) {
+            if (failure.compareAndSet(null, error)) {
+                next.set(pages.size());
+                outstanding.forEach(fetch -> fetch.cancel(true));
+            }
+            worker.complete(null);
+        }
+    }
+
+    private static Businesses merge(SearchResult first, SearchResult[] pages) {
+        List<Business> businesses = new ArrayList<>(first.businesses);
+        Set<String> ids = new HashSet<>();
+        first.businesses.forEach(business -> ids.add(business.id));
+        for (SearchResult page : pages)
+            for (Business business : page.businesses) if (ids.add(business.id)) businesses.add(business);
+        return new Businesses(businesses);
     }
 
     public BusinessResponse searchById(String id) {
-        yelpClient.businessWith(id, token().accessToken());
-        return BusinessResponse.fromOriginalResponse(yelpClient.responseBody());
+        URI uri = uris.businessBy(id);
+        return inFlight.join(uri, () -> read(
+            get(BUSINESS, uri),
+            body -> BusinessResponse.fromOriginalResponse(body, parser),
+            body -> BusinessResponse.fromBusiness(parser.business(body))
+        ));
+    }
+
+    /**
+     * Fails with <code>DeadlineExceeded</code> if there's no response before the deadline
+     */
+    public BusinessResponse searchById(String id, Deadline deadline) {
+        URI uri = uris.businessBy(id);
+        return inFlight.join(uri, deadline, () -> read(
+            uri,
+            deadline,
+            get(BUSINESS, uri, deadline),
+            body -> BusinessResponse.fromOriginalResponse(body, parser),
+            body -> BusinessResponse.fromBusiness(parser.business(body))
+        ));
     }
 
     public ReviewsResponse reviews(String id) {
-        yelpClient.allReviewsFor(id, token().accessToken());
-        return ReviewsResponse.fromOriginalResponse(yelpClient.responseBody());
+        URI uri = uris.reviews(id);
+        return inFlight.join(uri, () -> read(
+            get(REVIEWS, uri),
+            body -> ReviewsResponse.fromOriginalResponse(body, parser),
+            body -> ReviewsResponse.fromReviews(parser.reviews(body))
+        ));
+    }
+
+    /**
+     * Fails with <code>DeadlineExceeded</code> if there's no response before the deadline
+     */
+    public ReviewsResponse reviews(String id, Deadline deadline) {
+        URI uri = uris.reviews(id);
+        return inFlight.join(uri, deadline, () -> read(
+            uri,
+            deadline,
+            get(REVIEWS, uri, deadline),
+            body -> ReviewsResponse.fromOriginalResponse(body, parser),
+            body -> ReviewsResponse.fromReviews(parser.reviews(body))
+        ));
+    }
+
+    /**
+     * Non-blocking version of <code>search</code>
+     * <p>
+     * Cancelling the returned future will abort the HTTP request once every caller sharing it
+     * has cancelled, if the client supports it
+     */
+    public CompletableFuture<SearchResponse> searchAsync(SearchCriteria criteria) {
+        URI uri = uris.searchBy(criteria);
+        return inFlight.joinAsync(uri, () -> getAsync(SEARCH, uri, response -> read(
+            response,
+            body -> SearchResponse.fromOriginalResponse(body, parser),
+            body -> SearchResponse.fromSearchResult(parser.searchResult(body))
+        )));
+    }
+
+    /**
+     * Non-blocking version of <code>searchById</code>
+     * <p>
+     * Cancelling the returned future will abort the HTTP request once every caller sharing it
+     * has cancelled, if the client supports it
+     */
+    public CompletableFuture<BusinessResponse> searchByIdAsync(String id) {
+        URI uri = uris.businessBy(id);
+        return inFlight.joinAsync(uri, () -> getAsync(BUSINESS, uri, response -> read(
+            response,
+            body -> BusinessResponse.fromOriginalResponse(body, parser),
+            body -> BusinessResponse.fromBusiness(parser.business(body))
+        )));
+    }
+
+    /**
+     * Non-blocking version of <code>reviews</code>
+     * <p>
+     * Cancelling the returned future will abort the HTTP request once every caller sharing it
+     * has cancelled, if the client supports it
+     */
+    public CompletableFuture<ReviewsResponse> reviewsAsync(String id) {
+        URI uri = uris.reviews(id);
+        return inFlight.joinAsync(uri, () -> getAsync(REVIEWS, uri, response -> read(
+            response,
+            body -> ReviewsResponse.fromOriginalResponse(body, parser),
+            body -> ReviewsResponse.fromReviews(parser.reviews(body))
+        )));
     }
 
+    /**
+     * Opens connections to Yelp and gets a valid token, so that the first requests don't pay for
+     * DNS lookups, TCP and TLS handshakes or authentication
+     * <p>
+     * Call it before reporting your application as ready, it fails if Yelp cannot be reached
+     *
+     * @param connections Number of pooled connections to open, HTTP/2 uses a single connection
+     */
+    public WarmUpReport warmUp(int connections) {
+        long start = System.nanoTime();
+        int ready = yelpClient.warmUp(connections);
+        token();
+        return new WarmUpReport(ready, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * A token about to expire is renewed in the background, callers only wait for Yelp if
+     * there's no valid token
+     */
     public AccessToken token() {
-        if (credentials.isTokenExpired()) authenticate();
+        return tokens.current();
+    }
 
-        return credentials.token();
+    private RawResponse get(Endpoint endpoint, URI uri) {
+        return yelpClient.send(YelpRequest.get(endpoint, uri, token().accessToken()));
     }
 
-    private void authenticate() {
-        yelpClient.authenticate(credentials.toMap());
-        credentials.updateToken(parser.token(yelpClient.responseBody()));
+    private RawResponse get(Endpoint endpoint, URI uri, Deadline deadline) {
+        return yelpClient.send(
+            YelpRequest.get(endpoint, uri, tokens.current(deadline).accessToken()).withDeadline(deadline)
+        );
+    }
+
+    private <T> CompletableFuture<T> getAsync(
+        Endpoint endpoint,
+        URI uri,
+        Function<RawResponse, T> toResponse
+    ) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+        tokens
+            .currentAsync()
+            .thenCompose(token -> {
+                CompletableFuture<RawResponse> exchange = yelpClient.sendAsync(
+                    YelpRequest.get(endpoint, uri, token.accessToken())
+                );
+                response.whenComplete((ignored, error) -> {
+                    if (response.isCancelled()) exchange.cancel(true);
+                });
+                return exchange;
+            })
+            .whenComplete((rawResponse, error) -> {
+                if (error != null) response.completeExceptionally(unwrap(error));
+                else try {
+                    response.complete(toResponse.apply(rawResponse));
+                } catch (RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            })
+        ;
+        return response;
+    }
+
+    /**
+     * The body is either kept as a string to be parsed later, or parsed right away from the
+     * connection. Either way the connection is released before returning
+     */
+    private <T> T read(
+        RawResponse response,
+        Function<String, T> retained,
+        Function<InputStream, T> streamed
+    ) {
+        try (RawResponse body = response) {
+            return retainOriginalResponses
+                ? retained.apply(body.body())
+                : streamed.apply(body.bodyStream())
+            ;
+        }
+    }
+
+    /**
+     * An expired deadline aborts the exchange, reading what's left of the body fails. Parsers
+     * report it as a malformed body, callers sharing the request need to know it was abandoned
+     */
+    private <T> T read(
+        URI uri,
+        Deadline deadline,
+        RawResponse response,
+        Function<String, T> retained,
+        Function<InputStream, T> streamed
+    ) {
+        try {
+            return read(response, retained, streamed);
+        } catch (DeadlineExceeded e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (deadline.isExpired()) throw DeadlineExceeded.forRequest(uri, e);
+            throw e;
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null
+            ? error.getCause()
+            : error
+        ;
+    }
+
+    private Yelp(
+        Credentials credentials,
+        YelpClient yelpClient,
+        Parser parser,
+        TokenRefresher tokens,
+        boolean retainOriginalResponses
+    ) {
+        this.credentials = credentials;
+        this.yelpClient = yelpClient;
+        this.parser = parser;
+        this.uris = new YelpURIs();
+        this.tokens = tokens;
+        this.retainOriginalResponses = retainOriginalResponses;
     }
 }
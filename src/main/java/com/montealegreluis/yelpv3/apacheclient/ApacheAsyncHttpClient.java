@@ -0,0 +1,246 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import com.montealegreluis.yelpv3.client.CompressionStatistics;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import com.montealegreluis.yelpv3.client.YelpURIs;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpHead;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.conn.DefaultSchemePortResolver;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.ManagedNHttpClientConnectionFactory;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
+
+import static com.montealegreluis.yelpv3.apacheclient.HttpMessages.toHttpRequest;
+import static com.montealegreluis.yelpv3.apacheclient.HttpMessages.toRawResponse;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Non-blocking client, a few I/O dispatcher threads multiplex all the requests in flight
+ * <p>
+ * Response bodies are buffered in memory by the I/O dispatchers before the future completes,
+ * compressed bodies are inflated while they are parsed
+ * <p>
+ * Cancelling the future returned by <code>sendAsync</code> aborts the underlying HTTP exchange
+ * and releases its connection
+ */
+public class ApacheAsyncHttpClient implements YelpClient, Closeable {
+    private static final long WARM_UP_TIMEOUT_MILLIS = 10_000;
+    private static final ScheduledThreadPoolExecutor evictor = newEvictor();
+    private final CloseableHttpAsyncClient client;
+    private final CompressionStatistics statistics;
+    private final int maxPerRoute;
+    private final RequestConfig defaults;
+    private final ScheduledFuture<?> eviction;
+
+    public ApacheAsyncHttpClient(CloseableHttpAsyncClient client) {
+        this(client, Integer.MAX_VALUE, RequestConfig.DEFAULT, null);
+    }
+
+    private ApacheAsyncHttpClient(
+        CloseableHttpAsyncClient client,
+        int maxPerRoute,
+        RequestConfig defaults,
+        ScheduledFuture<?> eviction
+    ) {
+        this.client = client;
+        this.statistics = new CompressionStatistics();
+        this.maxPerRoute = maxPerRoute;
+        this.defaults = defaults;
+        this.eviction = eviction;
+        if (!client.isRunning()) client.start();
+    }
+
+    /**
+     * Connections idle for longer than the idle timeout, or older than their time to live, are
+     * closed in the background. The I/O dispatchers notice connections closed by Yelp right
+     * away, so connections are never validated before being reused
+     *
+     * @param ioThreads Amount of I/O dispatcher threads, usually the amount of available cores
+     */
+    public static ApacheAsyncHttpClient pooled(ConnectionPoolSettings settings, int ioThreads) {
+        PoolingNHttpClientConnectionManager manager;
+        try {
+            manager = new PoolingNHttpClientConnectionManager(
+                new DefaultConnectingIOReactor(IOReactorConfig.custom().setIoThreadCount(ioThreads).build()),
+                ManagedNHttpClientConnectionFactory.INSTANCE,
+                RegistryBuilder
+                    .<SchemeIOSessionStrategy>create()
+                    .register("http", NoopIOSessionStrategy.INSTANCE)
+                    .register("https", SSLIOSessionStrategy.getDefaultStrategy())
+                    .build(),
+                DefaultSchemePortResolver.INSTANCE,
+                SystemDefaultDnsResolver.INSTANCE,
+                settings.timeToLiveMillis(),
+                MILLISECONDS
+            );
+        } catch (IOReactorException e) {
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        }
+        manager.setMaxTotal(settings.maxTotal());
+        manager.setDefaultMaxPerRoute(settings.maxPerRoute());
+        manager.setMaxPerRoute(ApacheHttpClient.yelpRoute(), settings.maxPerRoute());
+
+        return new ApacheAsyncHttpClient(
+            HttpAsyncClients
+                .custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(Timeouts.from(settings))
+                .build(),
+            settings.maxPerRoute(),
+            Timeouts.from(settings),
+            evictor.scheduleWithFixedDelay(() -> {
+                manager.closeExpiredConnections();
+                manager.closeIdleConnections(settings.idleTimeoutMillis(), MILLISECONDS);
+            }, settings.idleTimeoutMillis(), settings.idleTimeoutMillis(), MILLISECONDS)
+        );
+    }
+
+    public static ApacheAsyncHttpClient pooled(ConnectionPoolSettings settings) {
+        return pooled(settings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Interrupting the calling thread aborts the exchange
+     */
+    @Override
+    public RawResponse send(YelpRequest request) {
+        CompletableFuture<RawResponse> response = sendAsync(request);
+        try {
+            return response.get();
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw DeadlineExceeded.interrupted(request.uri(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw TransportFailure.sending(request, e.getCause());
+        }
+    }
+
+    /**
+     * If the request has a deadline, the future fails with <code>DeadlineExceeded</code> once
+     * it expires and the exchange is aborted
+     */
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        if (request.hasDeadline() && request.deadline().isExpired()) {
+            response.completeExceptionally(DeadlineExceeded.forRequest(request.uri()));
+            return response;
+        }
+
+        HttpRequestBase httpRequest = toHttpRequest(request);
+        if (request.hasDeadline()) httpRequest.setConfig(Timeouts.within(defaults, request.deadline()));
+        Future<HttpResponse> exchange = client.execute(
+            httpRequest,
+            new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse httpResponse) {
+                    try {
+                        response.complete(toRawResponse(request, httpResponse, () -> {}, statistics));
+                    } catch (IOException e) {
+                        response.completeExceptionally(TransportFailure.sending(request, e));
+                    } catch (RuntimeException e) {
+                        response.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    response.completeExceptionally(
+                        e instanceof RuntimeException ? e : TransportFailure.sending(request, e)
+                    );
+                }
+
+                @Override
+                public void cancelled() {
+                    response.cancel(false);
+                }
+            }
+        );
+        ScheduledFuture<?> expiration = request.hasDeadline()
+            ? request.deadline().whenExpired(() -> {
+                if (response.completeExceptionally(DeadlineExceeded.forRequest(request.uri()))) exchange.cancel(true);
+            })
+            : null
+        ;
+        response.whenComplete((ignored, error) -> {
+            if (expiration != null) expiration.cancel(false);
+            if (response.isCancelled()) exchange.cancel(true);
+        });
+        return response;
+    }
+
+    /**
+     * Sends concurrent <code>HEAD</code> requests to Yelp, each of them needs its own
+     * connection, which stays in the pool afterwards
+     */
+    @Override
+    public int warmUp(int connections) {
+        List<Future<HttpResponse>> exchanges = new ArrayList<>();
+        for (int i = 0; i < Math.min(connections, maxPerRoute); i++)
+            exchanges.add(client.execute(new HttpHead(String.format("https://%s/", YelpURIs.HOST)), null));
+
+        try {
+            for (Future<HttpResponse> exchange : exchanges) exchange.get(WARM_UP_TIMEOUT_MILLIS, MILLISECONDS);
+            return exchanges.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e.getCause() != null ? e.getCause() : e);
+        } finally {
+            for (Future<HttpResponse> exchange : exchanges) exchange.cancel(true);
+        }
+    }
+
+    public CompressionStatistics compressionStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (eviction != null) eviction.cancel(false);
+        client.close();
+    }
+
+    private static ScheduledThreadPoolExecutor newEvictor() {
+        ScheduledThreadPoolExecutor evictor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "yelp-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.setRemoveOnCancelPolicy(true);
+        return evictor;
+    }
+}
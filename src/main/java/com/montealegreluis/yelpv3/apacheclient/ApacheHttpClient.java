@@ -3,107 +3,218 @@
  */
 package com.montealegreluis.yelpv3.apacheclient;
 
-import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.BlockingSends;
+import com.montealegreluis.yelpv3.client.CompressionStatistics;
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
 import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
 import com.montealegreluis.yelpv3.client.YelpURIs;
-import com.montealegreluis.yelpv3.search.SearchCriteria;
-import org.apache.http.NameValuePair;
-import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
 import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-
-public class ApacheHttpClient implements YelpClient {
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.montealegreluis.yelpv3.apacheclient.HttpMessages.toHttpRequest;
+import static com.montealegreluis.yelpv3.apacheclient.HttpMessages.toRawResponse;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Stateless client, every call returns its own response and releases its connection back to the
+ * pool once the response is closed
+ */
+public class ApacheHttpClient implements YelpClient, Closeable {
+    private static final long WARM_UP_TIMEOUT_MILLIS = 10_000;
     private final CloseableHttpClient client;
-    private CloseableHttpResponse response;
-    private final YelpURIs yelpURIs;
-
-    public ApacheHttpClient(CloseableHttpClient client, YelpURIs yelpURIs) {
-        this.client = client;
-        this.yelpURIs = yelpURIs;
+    private final CompressionStatistics statistics;
+    private final PoolingHttpClientConnectionManager manager;
+    private final ConnectionPoolSettings settings;
+    private final RequestConfig defaults;
+    private final Executor executor;
+
+    /**
+     * Clients created with this constructor cannot be warmed up, since their connection manager
+     * is unknown
+     */
+    public ApacheHttpClient(CloseableHttpClient client) {
+        this(client, null, null, BlockingSends.sharedExecutor());
     }
 
-    @Override
-    public void allBusinessesMatching(SearchCriteria criteria, String accessToken) {
-        getFrom(yelpURIs.searchBy(criteria), accessToken);
+    private ApacheHttpClient(
+        CloseableHttpClient client,
+        PoolingHttpClientConnectionManager manager,
+        ConnectionPoolSettings settings,
+        Executor executor
+    ) {
+        this(client, new CompressionStatistics(), manager, settings, executor);
     }
 
-    @Override
-    public void businessWith(String id, String accessToken) {
-        getFrom(yelpURIs.businessBy(id), accessToken);
+    private ApacheHttpClient(
+        CloseableHttpClient client,
+        CompressionStatistics statistics,
+        PoolingHttpClientConnectionManager manager,
+        ConnectionPoolSettings settings,
+        Executor executor
+    ) {
+        this.client = client;
+        this.statistics = statistics;
+        this.manager = manager;
+        this.settings = settings;
+        this.defaults = settings != null ? Timeouts.from(settings) : RequestConfig.DEFAULT;
+        this.executor = executor;
     }
 
-    @Override
-    public void allReviewsFor(String businessId, String accessToken) {
-        getFrom(yelpURIs.reviews(businessId), accessToken);
+    /**
+     * Client backed by a pooling connection manager, safe to be shared across threads
+     * <p>
+     * Compressed bodies are inflated by this library instead of Apache's interceptors, so that
+     * they are included in the compression statistics
+     */
+    public static ApacheHttpClient pooled(ConnectionPoolSettings settings) {
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(
+            settings.timeToLiveMillis(),
+            MILLISECONDS
+        );
+        manager.setMaxTotal(settings.maxTotal());
+        manager.setDefaultMaxPerRoute(settings.maxPerRoute());
+        manager.setMaxPerRoute(yelpRoute(), settings.maxPerRoute());
+        manager.setValidateAfterInactivity(settings.validateAfterInactivityMillis());
+
+        return new ApacheHttpClient(
+            HttpClients
+                .custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(Timeouts.from(settings))
+                .disableContentCompression()
+                .evictExpiredConnections()
+                .evictIdleConnections(settings.idleTimeoutMillis(), MILLISECONDS)
+                .build(),
+            manager,
+            settings,
+            BlockingSends.bounded(settings.maxTotal())
+        );
     }
 
-    @Override
-    public void authenticate(Map<String, String> credentials) {
-        postTo(yelpURIs.authentication(), credentials);
+    /**
+     * Client sharing this client's connections, whose <code>sendAsync</code> sends requests on
+     * the given executor instead of the threads shared by every blocking client
+     */
+    public ApacheHttpClient withExecutor(Executor executor) {
+        return new ApacheHttpClient(client, statistics, manager, settings, executor);
     }
 
+    /**
+     * The body is streamed straight from the connection, close the response to release it
+     * <p>
+     * If the request has a deadline, it is aborted once it expires, even while its body is being
+     * read. A thread interrupted while waiting for a pooled connection gives up right away
+     */
     @Override
-    public String responseBody() {
-        return parseResponseBody();
-    }
-
-    private void postTo(URI uri, Map<String, String> bodyParameters) {
-        HttpPost post = new HttpPost(uri);
-        post.setEntity(createFormEntityWith(bodyParameters));
-        response = executeRequest(post);
-        checkStatus(uri);
-    }
+    public RawResponse send(YelpRequest request) {
+        if (!request.hasDeadline()) {
+            try {
+                CloseableHttpResponse response = client.execute(toHttpRequest(request));
+                return toRawResponse(request, response, response, statistics);
+            } catch (IOException e) {
+                throw TransportFailure.sending(request, e);
+            }
+        }
 
-    private void getFrom(URI uri, String bearerToken) {
-        HttpGet get = new HttpGet(uri);
-        get.setHeader("Authorization", String.format("Bearer %s", bearerToken));
-        response = executeRequest(get);
-        checkStatus(uri);
-    }
+        Deadline deadline = request.deadline();
+        if (deadline.isExpired()) throw DeadlineExceeded.forRequest(request.uri());
 
-    private CloseableHttpResponse executeRequest(HttpUriRequest request) {
+        HttpRequestBase httpRequest = toHttpRequest(request);
+        httpRequest.setConfig(Timeouts.within(defaults, deadline));
+        ScheduledFuture<?> abort = deadline.whenExpired(httpRequest::abort);
         try {
-            return client.execute(request);
+            CloseableHttpResponse response = client.execute(httpRequest);
+            return toRawResponse(request, response, () -> {
+                abort.cancel(false);
+                response.close();
+            }, statistics);
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            abort.cancel(false);
+            if (Thread.currentThread().isInterrupted()) throw DeadlineExceeded.interrupted(request.uri(), e);
+            if (deadline.isExpired()) throw DeadlineExceeded.forRequest(request.uri(), e);
+            throw TransportFailure.sending(request, e);
+        } catch (RuntimeException e) {
+            abort.cancel(false);
+            throw e;
         }
     }
 
-    private void checkStatus(URI uri) {
-        int statusCode = response.getStatusLine().getStatusCode();
-
-        if (statusCode == 200) return;
-
-        throw new ErrorResponse(statusCode, uri.toString(), parseResponseBody());
+    /**
+     * Blocks one of this client's executor threads while the request is sent, use
+     * <code>ApacheAsyncHttpClient</code> to avoid it. Pooled clients send at most
+     * <code>maxTotal</code> requests at once, the rest are queued
+     */
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        return BlockingSends.sendAsync(this, request, executor);
     }
 
-    private String parseResponseBody() {
+    /**
+     * Leases connections to Yelp from the pool, connects the ones that are not open yet and
+     * returns them to the pool. At most <code>maxPerRoute</code> connections are warmed up
+     */
+    @Override
+    public int warmUp(int connections) {
+        if (manager == null) return 0;
+
+        HttpRoute route = yelpRoute();
+        List<HttpClientConnection> leased = new ArrayList<>();
         try {
-            return EntityUtils.toString(response.getEntity());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            for (int i = 0; i < Math.min(connections, settings.maxPerRoute()); i++) {
+                HttpClientConnection connection = manager
+                    .requestConnection(route, null)
+                    .get(WARM_UP_TIMEOUT_MILLIS, MILLISECONDS)
+                ;
+                leased.add(connection);
+                if (connection.isOpen()) continue;
+
+                HttpClientContext context = HttpClientContext.create();
+                manager.connect(connection, route, (int) WARM_UP_TIMEOUT_MILLIS, context);
+                manager.routeComplete(connection, route, context);
+            }
+            return leased.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        } catch (IOException | ExecutionException e) {
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        } finally {
+            for (HttpClientConnection connection : leased)
+                manager.releaseConnection(connection, null, settings.idleTimeoutMillis(), MILLISECONDS);
         }
     }
 
-    private UrlEncodedFormEntity createFormEntityWith(Map<String, String> parameters) {
-        try {
-            List<NameValuePair> params = new ArrayList<>();
-            parameters.forEach((key, value) -> params.add(new BasicNameValuePair(key, value)));
-            return new UrlEncodedFormEntity(params);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        }
+    public CompressionStatistics compressionStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        client.close();
+    }
+
+    static HttpRoute yelpRoute() {
+        return new HttpRoute(new HttpHost(YelpURIs.HOST, 443, "https"), null, true);
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits for the connections kept open against Yelp's API
+ * <p>
+ * Defaults allow 200 concurrent connections to <code>api.yelp.com</code>. Connections idle for
+ * more than 30 seconds are evicted in the background, and connections idle for more than 2
+ * seconds are validated before being reused. Connecting and waiting for a pooled connection time
+ * out after 10 seconds, reads time out after 30 seconds without data
+ * <p>
+ * <code>ConnectionPoolSettings.defaults().withMaxPerRoute(300).withMaxTotal(300)</code>
+ */
+public class ConnectionPoolSettings {
+    private final int maxTotal;
+    private final int maxPerRoute;
+    private final long idleTimeoutMillis;
+    private final long timeToLiveMillis;
+    private final int validateAfterInactivityMillis;
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final int poolTimeoutMillis;
+
+    public static ConnectionPoolSettings defaults() {
+        return new ConnectionPoolSettings(
+            200,
+            200,
+            TimeUnit.SECONDS.toMillis(30),
+            TimeUnit.MINUTES.toMillis(5),
+            2000,
+            10_000,
+            30_000,
+            10_000
+        );
+    }
+
+    /**
+     * Maximum amount of connections in the pool, for all routes
+     */
+    public ConnectionPoolSettings withMaxTotal(int maxTotal) {
+        return new ConnectionPoolSettings(
+            maxTotal, maxPerRoute, idleTimeoutMillis, timeToLiveMillis, validateAfterInactivityMillis,
+            connectTimeoutMillis, readTimeoutMillis, poolTimeoutMillis
+        );
+    }
+
+    /**
+     * Maximum amount of connections to <code>api.yelp.com</code>
+     */
+    public ConnectionPoolSettings withMaxPerRoute(int maxPerRoute) {
+        return new ConnectionPoolSettings(
+            maxTotal, maxPerRoute, idleTimeoutMillis, timeToLiveMillis, validateAfterInactivityMillis,
+            connectTimeoutMillis, readTimeoutMillis, poolTimeoutMillis
+        );
+    }
+
+    /**
+     * Connections idle for longer than this value will be closed by a background thread
+     */
+    public ConnectionPoolSettings withIdleTimeout(long duration, TimeUnit unit) {
+        return new ConnectionPoolSettings(
+            maxTotal, maxPerRoute, unit.toMillis(duration), timeToLiveMillis, validateAfterInactivityMillis,
+            connectTimeoutMillis, readTimeoutMillis, poolTimeoutMillis
+        );
+    }
+
+    /**
+     * Connections will not be reused after this time, even if they are still healthy
+     */
+    public ConnectionPoolSettings withTimeToLive(long duration, TimeUnit unit) {
+        return new ConnectionPoolSettings(
+            maxTotal, maxPerRoute, idleTimeoutMillis, unit.toMillis(duration), validateAfterInactivityMillis,
+            connectTimeoutMillis, readTimeoutMillis, poolTimeoutMillis
+        );
+    }
+
+    /**
+     * Limits used when a request has no deadline. Requests with a deadline use the time they
+     * have left if it's shorter
+     *
+     * @param connect Time to open a connection, including the TLS handshake
+     * @param read Maximum time without receiving data from Yelp
+     * @param pool Time to wait for a connection to be available in the pool
+     */
+    public ConnectionPoolSettings withTimeouts(long connect, long read, long pool, TimeUnit unit) {
+        return new ConnectionPoolSettings(
+            maxTotal, maxPerRoute, idleTimeoutMillis, timeToLiveMillis, validateAfterInactivityMillis,
+            (int) unit.toMillis(connect), (int) unit.toMillis(read), (int) unit.toMillis(pool)
+        );
+    }
+
+    public int maxTotal() {
+        return maxTotal;
+    }
+
+    public int maxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public long timeToLiveMillis() {
+        return timeToLiveMillis;
+    }
+
+    public int validateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    public int connectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int readTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    public int poolTimeoutMillis() {
+        return poolTimeoutMillis;
+    }
+
+    private ConnectionPoolSettings(
+        int maxTotal,
+        int maxPerRoute,
+        long idleTimeoutMillis,
+        long timeToLiveMillis,
+        int validateAfterInactivityMillis,
+        int connectTimeoutMillis,
+        int readTimeoutMillis,
+        int poolTimeoutMillis
+    ) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.poolTimeoutMillis = poolTimeoutMillis;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import com.montealegreluis.yelpv3.client.CompressionStatistics;
+import com.montealegreluis.yelpv3.client.Decompression;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.NameValuePair;
+import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+/**
+ * Conversions between this library's requests and responses and Apache's HTTP messages, shared
+ * by the blocking and the non-blocking clients
+ */
+class HttpMessages {
+    static HttpRequestBase toHttpRequest(YelpRequest request) {
+        HttpRequestBase httpRequest;
+        if ("POST".equals(request.method())) {
+            HttpPost post = new HttpPost(request.uri());
+            post.setEntity(createFormEntityWith(request.formParameters()));
+            httpRequest = post;
+        } else {
+            httpRequest = new HttpGet(request.uri());
+        }
+        httpRequest.setHeader("Accept-Encoding", Decompression.ACCEPT_ENCODING);
+        request.headers().forEach(httpRequest::setHeader);
+        return httpRequest;
+    }
+
+    /**
+     * The body is streamed from the connection, and inflated while it is read if it was
+     * compressed. Closing the raw response closes the body and releases the connection
+     * <p>
+     * If the status code is not the expected one, the connection is released right away
+     */
+    static RawResponse toRawResponse(
+        YelpRequest request,
+        HttpResponse response,
+        Closeable connection,
+        CompressionStatistics statistics
+    ) throws IOException {
+        HttpEntity entity = response.getEntity();
+        try {
+            InputStream body = Decompression.decode(
+                contentEncodingOf(response),
+                entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]),
+                statistics
+            );
+            checkStatus(request, response, body);
+            return new RawResponse(
+                response.getStatusLine().getStatusCode(),
+                headersFrom(response),
+                body,
+                () -> {
+                    try {
+                        body.close();
+                    } finally {
+                        connection.close();
+                    }
+                }
+            );
+        } catch (IOException | RuntimeException e) {
+            EntityUtils.consumeQuietly(entity);
+            connection.close();
+            throw e;
+        }
+    }
+
+    private static void checkStatus(YelpRequest request, HttpResponse response, InputStream body) {
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (RawResponse.isExpected(statusCode)) return;
+
+        Scanner scanner = new Scanner(body, "UTF-8").useDelimiter("\\A");
+        Header retryAfter = response.getFirstHeader("Retry-After");
+        throw new ErrorResponse(
+            statusCode,
+            request.uri().toString(),
+            scanner.hasNext() ? scanner.next() : "",
+            retryAfter != null ? retryAfter.getValue() : null
+        );
+    }
+
+    /**
+     * Apache's default clients inflate bodies on their own and remove this header
+     */
+    private static String contentEncodingOf(HttpResponse response) {
+        Header contentEncoding = response.getFirstHeader("Content-Encoding");
+        return contentEncoding != null ? contentEncoding.getValue() : null;
+    }
+
+    private static Map<String, List<String>> headersFrom(HttpResponse response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Header header : response.getAllHeaders())
+            headers.computeIfAbsent(header.getName(), name -> new ArrayList<>()).add(header.getValue());
+        return headers;
+    }
+
+    private static UrlEncodedFormEntity createFormEntityWith(Map<String, String> parameters) {
+        try {
+            List<NameValuePair> params = new ArrayList<>();
+            parameters.forEach((key, value) -> params.add(new BasicNameValuePair(key, value)));
+            return new UrlEncodedFormEntity(params);
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
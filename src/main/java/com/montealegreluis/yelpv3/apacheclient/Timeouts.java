@@ -0,0 +1,49 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import com.montealegreluis.yelpv3.client.Deadline;
+import org.apache.http.client.config.RequestConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timeouts for requests with and without a deadline, shared by the blocking and the
+ * non-blocking clients
+ * <p>
+ * Connect, read and pool timeouts are limits for a single step, a deadline is a limit for the
+ * whole request. That's why requests with a deadline are also aborted once it expires
+ */
+class Timeouts {
+    static RequestConfig from(ConnectionPoolSettings settings) {
+        return RequestConfig
+            .custom()
+            .setConnectTimeout(settings.connectTimeoutMillis())
+            .setSocketTimeout(settings.readTimeoutMillis())
+            .setConnectionRequestTimeout(settings.poolTimeoutMillis())
+            .build()
+        ;
+    }
+
+    /**
+     * No step can take longer than the time left before the deadline expires
+     */
+    static RequestConfig within(RequestConfig defaults, Deadline deadline) {
+        int remaining = (int) Math.max(1, Math.min(Integer.MAX_VALUE, deadline.remaining(TimeUnit.MILLISECONDS)));
+        return RequestConfig
+            .copy(defaults)
+            .setConnectTimeout(shortest(defaults.getConnectTimeout(), remaining))
+            .setSocketTimeout(shortest(defaults.getSocketTimeout(), remaining))
+            .setConnectionRequestTimeout(shortest(defaults.getConnectionRequestTimeout(), remaining))
+            .build()
+        ;
+    }
+
+    /**
+     * Apache uses zero or a negative value to wait indefinitely
+     */
+    private static int shortest(int timeout, int remaining) {
+        return timeout <= 0 ? remaining : Math.min(timeout, remaining);
+    }
+}
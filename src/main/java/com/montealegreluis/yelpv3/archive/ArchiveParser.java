@@ -0,0 +1,85 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.Parser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Parses archives of original responses, stored as JSON lines, across the cores of a fork/join
+ * pool
+ * <p>
+ * The archive is split in chunks of lines, and the lines of each chunk are parsed in parallel.
+ * Only a bounded number of chunks is read ahead of the stream's consumer, see
+ * <code>ArchiveSettings</code>
+ * <p>
+ * Streams hold the archive open until they are closed, like <code>Files.lines</code>
+ * <p>
+ * <code>try (Stream&lt;SearchResult&gt; results = new ArchiveParser(parser).searchResults(path)) {...}</code>
+ */
+public class ArchiveParser {
+    private final Parser parser;
+    private final ArchiveSettings settings;
+    private final ForkJoinPool pool;
+
+    public ArchiveParser(Parser parser) {
+        this(parser, ArchiveSettings.defaults(), ForkJoinPool.commonPool());
+    }
+
+    public ArchiveParser(Parser parser, ArchiveSettings settings, ForkJoinPool pool) {
+        this.parser = parser;
+        this.settings = settings;
+        this.pool = pool;
+    }
+
+    public Stream<SearchResult> searchResults(Path archive) {
+        return parse(open(archive), parser::searchResult);
+    }
+
+    public Stream<SearchResult> searchResults(Reader archive) {
+        return parse(archive, parser::searchResult);
+    }
+
+    public Stream<BusinessDetails> businesses(Path archive) {
+        return parse(open(archive), parser::business);
+    }
+
+    public Stream<BusinessDetails> businesses(Reader archive) {
+        return parse(archive, parser::business);
+    }
+
+    /**
+     * @param parse Converts a single line into a result, it's called from the pool's threads
+     */
+    public <T> Stream<T> parse(Reader archive, Function<String, T> parse) {
+        ChunkSpliterator<T> chunks = new ChunkSpliterator<>(
+            archive instanceof BufferedReader ? (BufferedReader) archive : new BufferedReader(archive),
+            parse,
+            settings,
+            pool
+        );
+        return StreamSupport.stream(chunks, false).onClose(chunks::close);
+    }
+
+    private Reader open(Path archive) {
+        try {
+            return Files.newBufferedReader(archive, UTF_8);
+        } catch (IOException e) {
+            throw UnreadableArchive.at(archive, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+/**
+ * How many lines are parsed together, and how many chunks of lines can be read ahead
+ * <p>
+ * At most <code>chunksInFlight + 1</code> chunks are held in memory at any time, whatever the size
+ * of the archive
+ * <p>
+ * By default chunks have 64 lines, twice as many chunks as processors can be in flight, and
+ * results keep the order of the lines
+ */
+public class ArchiveSettings {
+    private final int linesPerChunk;
+    private final int chunksInFlight;
+    private final boolean ordered;
+
+    public static ArchiveSettings defaults() {
+        return new ArchiveSettings(64, 2 * Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    public ArchiveSettings withLinesPerChunk(int lines) {
+        if (lines < 1) throw new IllegalArgumentException("Chunks should have at least one line");
+        return new ArchiveSettings(lines, chunksInFlight, ordered);
+    }
+
+    public ArchiveSettings withChunksInFlight(int chunks) {
+        if (chunks < 1) throw new IllegalArgumentException("At least one chunk should be in flight");
+        return new ArchiveSettings(linesPerChunk, chunks, ordered);
+    }
+
+    /**
+     * Chunks are handed over as soon as they are parsed, instead of in the order of their lines
+     */
+    public ArchiveSettings unordered() {
+        return new ArchiveSettings(linesPerChunk, chunksInFlight, false);
+    }
+
+    int linesPerChunk() {
+        return linesPerChunk;
+    }
+
+    int chunksInFlight() {
+        return chunksInFlight;
+    }
+
+    boolean isOrdered() {
+        return ordered;
+    }
+
+    private ArchiveSettings(int linesPerChunk, int chunksInFlight, boolean ordered) {
+        this.linesPerChunk = linesPerChunk;
+        this.chunksInFlight = chunksInFlight;
+        this.ordered = ordered;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * Splits a chunk in halves until they are small enough to be parsed by a single thread, results
+ * keep the order of the lines
+ */
+class ChunkParser<T> extends RecursiveTask<List<T>> {
+    private static final int LINES_PER_TASK = 8;
+
+    private final List<String> lines;
+    private final int from;
+    private final int to;
+    private final Function<String, T> parse;
+
+    ChunkParser(List<String> lines, Function<String, T> parse) {
+        this(lines, 0, lines.size(), parse);
+    }
+
+    private ChunkParser(List<String> lines, int from, int to, Function<String, T> parse) {
+        this.lines = lines;
+        this.from = from;
+        this.to = to;
+        this.parse = parse;
+    }
+
+    @Override
+    protected List<T> compute() {
+        if (to - from <= LINES_PER_TASK) {
+            List<T> results = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) results.add(parse.apply(lines.get(i)));
+            return results;
+        }
+
+        int middle = (from + to) >>> 1;
+        ChunkParser<T> first = new ChunkParser<>(lines, from, middle, parse);
+        first.fork();
+        List<T> second = new ChunkParser<>(lines, middle, to, parse).compute();
+        List<T> results = first.join();
+        results.addAll(second);
+        return results;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Lines are read by the thread consuming the stream, and parsed by the pool. Chunks are read
+ * ahead only while there are fewer than <code>chunksInFlight</code> waiting to be consumed
+ * <p>
+ * Blank lines are ignored
+ */
+class ChunkSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+    private final BufferedReader archive;
+    private final Function<String, T> parse;
+    private final ArchiveSettings settings;
+    private final ForkJoinPool pool;
+    private final Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+    private Iterator<T> current = Collections.emptyIterator();
+    private boolean exhausted;
+    private long line;
+
+    ChunkSpliterator(BufferedReader archive, Function<String, T> parse, ArchiveSettings settings, ForkJoinPool pool) {
+        super(Long.MAX_VALUE, Spliterator.NONNULL | (settings.isOrdered() ? Spliterator.ORDERED : 0));
+        this.archive = archive;
+        this.parse = parse;
+        this.settings = settings;
+        this.pool = pool;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        while (!current.hasNext()) {
+            readAhead();
+            if (inFlight.isEmpty()) return false;
+            current = nextChunk().iterator();
+        }
+        action.accept(current.next());
+        return true;
+    }
+
+    /**
+     * Chunks still in flight are cancelled
+     */
+    void close() {
+        inFlight.forEach(chunk -> chunk.cancel(false));
+        inFlight.clear();
+        try {
+            archive.close();
+        } catch (IOException e) {
+            throw UnreadableArchive.afterLine(line, e);
+        }
+    }
+
+    private void readAhead() {
+        while (!exhausted && inFlight.size() < settings.chunksInFlight()) {
+            List<String> chunk = readChunk();
+            if (!chunk.isEmpty()) inFlight.add(pool.submit(new ChunkParser<>(chunk, parse)));
+        }
+    }
+
+    private List<String> readChunk() {
+        List<String> chunk = new ArrayList<>(settings.linesPerChunk());
+        try {
+            while (chunk.size() < settings.linesPerChunk()) {
+                String next = archive.readLine();
+                if (next == null) {
+                    exhausted = true;
+                    break;
+                }
+                line++;
+                if (!next.trim().isEmpty()) chunk.add(next);
+            }
+        } catch (IOException e) {
+            throw UnreadableArchive.afterLine(line, e);
+        }
+        return chunk;
+    }
+
+    /**
+     * Unordered streams take the first chunk already parsed, if none is they wait for the oldest
+     */
+    private List<T> nextChunk() {
+        if (!settings.isOrdered()) {
+            for (Iterator<ForkJoinTask<List<T>>> chunks = inFlight.iterator(); chunks.hasNext(); ) {
+                ForkJoinTask<List<T>> chunk = chunks.next();
+                if (chunk.isDone()) {
+                    chunks.remove();
+                    return chunk.join();
+                }
+            }
+        }
+        return inFlight.poll().join();
+    }
+}
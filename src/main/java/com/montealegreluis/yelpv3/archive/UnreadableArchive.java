@@ -0,0 +1,23 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+import java.nio.file.Path;
+
+/**
+ * Exception thrown when the lines of an archive cannot be read
+ */
+public class UnreadableArchive extends RuntimeException {
+    private UnreadableArchive(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public static UnreadableArchive at(Path path, Throwable cause) {
+        return new UnreadableArchive(String.format("Cannot read archive %s", path), cause);
+    }
+
+    public static UnreadableArchive afterLine(long line, Throwable cause) {
+        return new UnreadableArchive(String.format("Cannot read archive after line %d", line), cause);
+    }
+}
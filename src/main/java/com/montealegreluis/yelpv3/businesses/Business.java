@@ -5,7 +5,6 @@ package com.montealegreluis.yelpv3.businesses;
 
 import com.montealegreluis.yelpv3.businesses.distance.Distance;
 
-import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -19,9 +18,9 @@ public class Business {
     public final Categories categories;
     public final int reviewCount;
     public final String name;
-    public final URL url;
+    public final Link url;
     public final Coordinates coordinates;
-    public final URL image;
+    public final Link image;
     public final Location location;
     public final Distance distance;
     public final List<Transaction> transactions;
@@ -35,9 +34,9 @@ public class Business {
         Categories categories,
         int reviewCount,
         String name,
-        URL url,
+        Link url,
         Coordinates coordinates,
-        URL image,
+        Link image,
         Location location,
         Distance distance,
         List<Transaction> transactions
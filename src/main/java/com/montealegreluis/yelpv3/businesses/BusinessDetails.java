@@ -5,13 +5,13 @@ package com.montealegreluis.yelpv3.businesses;
 
 import com.montealegreluis.yelpv3.businesses.distance.Distance;
 
-import java.net.URL;
 import java.util.Collections;
 import java.util.List;
 
 public class BusinessDetails extends Business {
     public final boolean isClaimed;
-    public final List<URL> photos;
+    /** <code>null</code> if Yelp didn't send any */
+    public final List<Link> photos;
     public final Schedule schedule;
 
     public BusinessDetails(
@@ -23,14 +23,14 @@ public class BusinessDetails extends Business {
         Categories categories,
         int reviewCount,
         String name,
-        URL url,
+        Link url,
         Coordinates coordinates,
-        URL image,
+        Link image,
         Location location,
         Distance distance,
         List<Transaction> transactions,
         boolean isClaimed,
-        List<URL> photos,
+        List<Link> photos,
         Schedule schedule
     ) {
         super(
@@ -50,7 +50,7 @@ public class BusinessDetails extends Business {
             transactions
         );
         this.isClaimed = isClaimed;
-        this.photos = Collections.unmodifiableList(photos);
+        this.photos = photos != null ? Collections.unmodifiableList(photos) : null;
         this.schedule = schedule;
     }
 
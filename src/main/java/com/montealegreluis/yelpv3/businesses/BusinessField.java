@@ -0,0 +1,18 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.businesses;
+
+/**
+ * Values of a business that can be projected out of a search result, without building the whole
+ * <code>Business</code>
+ */
+public enum BusinessField {
+    ID,
+    NAME,
+    RATING,
+    COORDINATES,
+    REVIEW_COUNT,
+    PRICING_LEVEL,
+    DISTANCE,
+}
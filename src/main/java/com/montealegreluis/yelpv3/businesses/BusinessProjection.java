@@ -0,0 +1,81 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.businesses;
+
+import com.montealegreluis.yelpv3.businesses.distance.Distance;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Subset of a business' values, useful when a view needs only a few of them, like map markers
+ * <p>
+ * Values that weren't projected are <code>null</code>, or <code>0</code> for numbers. Use
+ * <code>has</code> to tell them apart from actual values
+ */
+public class BusinessProjection {
+    public final Set<BusinessField> fields;
+    public final String id;
+    public final String name;
+    public final double rating;
+    public final Coordinates coordinates;
+    public final int reviewCount;
+    public final PricingLevel pricingLevel;
+    public final Distance distance;
+
+    /**
+     * Immutable copy of the requested fields. Build it once per response, every projection in it
+     * shares the same set
+     */
+    public static Set<BusinessField> fieldsOf(Set<BusinessField> fields) {
+        return Collections.unmodifiableSet(fields.isEmpty()
+            ? EnumSet.noneOf(BusinessField.class)
+            : EnumSet.copyOf(fields)
+        );
+    }
+
+    /**
+     * @param fields It is not copied, see <code>fieldsOf</code>
+     */
+    public static BusinessProjection from(Business business, Set<BusinessField> fields) {
+        return new BusinessProjection(
+            fields,
+            fields.contains(BusinessField.ID) ? business.id : null,
+            fields.contains(BusinessField.NAME) ? business.name : null,
+            fields.contains(BusinessField.RATING) ? business.rating : 0,
+            fields.contains(BusinessField.COORDINATES) ? business.coordinates : null,
+            fields.contains(BusinessField.REVIEW_COUNT) ? business.reviewCount : 0,
+            fields.contains(BusinessField.PRICING_LEVEL) ? business.pricingLevel : null,
+            fields.contains(BusinessField.DISTANCE) ? business.distance : null
+        );
+    }
+
+    /**
+     * @param fields It is not copied, see <code>fieldsOf</code>
+     */
+    public BusinessProjection(
+        Set<BusinessField> fields,
+        String id,
+        String name,
+        double rating,
+        Coordinates coordinates,
+        int reviewCount,
+        PricingLevel pricingLevel,
+        Distance distance
+    ) {
+        this.fields = fields;
+        this.id = id;
+        this.name = name;
+        this.rating = rating;
+        this.coordinates = coordinates;
+        this.reviewCount = reviewCount;
+        this.pricingLevel = pricingLevel;
+        this.distance = distance;
+    }
+
+    public boolean has(BusinessField field) {
+        return fields.contains(field);
+    }
+}
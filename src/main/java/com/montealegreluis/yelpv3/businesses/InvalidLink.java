@@ -0,0 +1,18 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.businesses;
+
+public class InvalidLink extends RuntimeException {
+    private InvalidLink(String message, Exception cause) {
+        super(message, cause);
+    }
+
+    public static InvalidLink with(String value) {
+        return new InvalidLink(String.format("Invalid HTTP link %s", value), null);
+    }
+
+    public static InvalidLink with(String value, Exception cause) {
+        return new InvalidLink(String.format("Invalid HTTP link %s", value), cause);
+    }
+}
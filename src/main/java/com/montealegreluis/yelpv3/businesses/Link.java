@@ -0,0 +1,81 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.businesses;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+
+/**
+ * HTTP link to a Yelp page or image, kept as the string sent by Yelp
+ * <p>
+ * Most links are passed to a view as they are, <code>URL</code> and <code>URI</code> objects are
+ * only built when asked for. Links are compared by their text, unlike <code>URL</code> they never
+ * resolve host names
+ */
+public class Link {
+    private final String value;
+
+    /**
+     * @throws InvalidLink If it isn't an absolute HTTP or HTTPS link
+     */
+    public static Link to(String value) {
+        if (!isValid(value)) throw InvalidLink.with(value);
+        return new Link(value);
+    }
+
+    /**
+     * Checks the scheme, that there's a host, and that there are no blanks or control characters
+     * without allocating anything
+     */
+    public static boolean isValid(String value) {
+        if (value == null) return false;
+        int host;
+        if (value.regionMatches(true, 0, "https://", 0, 8)) host = 8;
+        else if (value.regionMatches(true, 0, "http://", 0, 7)) host = 7;
+        else return false;
+
+        if (host == value.length() || "/?#".indexOf(value.charAt(host)) >= 0) return false;
+        for (int i = host; i < value.length(); i++) if (value.charAt(i) <= ' ') return false;
+        return true;
+    }
+
+    public URL toURL() {
+        try {
+            return new URL(value);
+        } catch (MalformedURLException e) {
+            throw InvalidLink.with(value, e);
+        }
+    }
+
+    public URI toURI() {
+        try {
+            return new URI(value);
+        } catch (URISyntaxException e) {
+            throw InvalidLink.with(value, e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (!(other instanceof Link)) return false;
+        return value.equals(((Link) other).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private Link(String value) {
+        this.value = value;
+    }
+}
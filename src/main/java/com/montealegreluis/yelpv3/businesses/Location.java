@@ -15,6 +15,7 @@ public class Location {
     public final String country;
     public final String zipCode;
     public final String crossStreets;
+    /** <code>null</code> if Yelp didn't send it */
     public final List<String> displayAddress;
 
     public Location(
@@ -36,6 +37,6 @@ public class Location {
         this.country = country;
         this.zipCode = zipCode;
         this.crossStreets = crossStreets;
-        this.displayAddress = Collections.unmodifiableList(displayAddress);
+        this.displayAddress = displayAddress != null ? Collections.unmodifiableList(displayAddress) : null;
     }
 }
@@ -0,0 +1,52 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import com.montealegreluis.yelpv3.client.Endpoint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.*;
+
+/**
+ * How long responses are considered fresh, per endpoint
+ * <p>
+ * Defaults are 5 minutes for searches, and 1 hour for business details and reviews. Endpoints
+ * with a time to live of zero are never cached. Authentication is never cached
+ * <p>
+ * <code>CachePolicy.defaults().withTimeToLive(SEARCH, 1, TimeUnit.MINUTES)</code>
+ */
+public class CachePolicy {
+    private final Map<Endpoint, Long> timesToLive;
+
+    public static CachePolicy defaults() {
+        Map<Endpoint, Long> timesToLive = new EnumMap<>(Endpoint.class);
+        timesToLive.put(SEARCH, TimeUnit.MINUTES.toMillis(5));
+        timesToLive.put(BUSINESS, TimeUnit.HOURS.toMillis(1));
+        timesToLive.put(REVIEWS, TimeUnit.HOURS.toMillis(1));
+        return new CachePolicy(timesToLive);
+    }
+
+    public CachePolicy withTimeToLive(Endpoint endpoint, long duration, TimeUnit unit) {
+        if (endpoint == AUTHENTICATION) throw new IllegalArgumentException("Tokens cannot be cached");
+
+        Map<Endpoint, Long> timesToLive = new EnumMap<>(this.timesToLive);
+        timesToLive.put(endpoint, unit.toMillis(duration));
+        return new CachePolicy(timesToLive);
+    }
+
+    public long timeToLiveMillis(Endpoint endpoint) {
+        return timesToLive.getOrDefault(endpoint, 0L);
+    }
+
+    public boolean caches(Endpoint endpoint) {
+        return timeToLiveMillis(endpoint) > 0;
+    }
+
+    private CachePolicy(Map<Endpoint, Long> timesToLive) {
+        this.timesToLive = timesToLive;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import com.montealegreluis.yelpv3.client.RawResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Buffered response, along with the validators Yelp sent for it, if any
+ * <p>
+ * Stores that keep responses outside the JVM serialize them with its getters, and rebuild them
+ * with <code>CachedResponse.of</code>
+ */
+public class CachedResponse {
+    /** Headers a <code>304</code> may update, the rest describe the stored body */
+    private static final Set<String> REFRESHED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+    static {
+        REFRESHED_HEADERS.addAll(Arrays.asList(
+            "ETag", "Last-Modified", "Cache-Control", "Expires", "Date", "Vary"
+        ));
+    }
+
+    private final int statusCode;
+    /** Case insensitive, as copied from the raw response */
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final long expiresAt;
+
+    CachedResponse(RawResponse response, long expiresAt) {
+        this(response.statusCode(), response.headers(), response.bodyBytes(), expiresAt);
+    }
+
+    /**
+     * @param expiresAt Epoch millis after which the response is stale
+     */
+    public static CachedResponse of(int statusCode, Map<String, List<String>> headers, byte[] body, long expiresAt) {
+        return new CachedResponse(new RawResponse(statusCode, headers, body), expiresAt);
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    /**
+     * The body is not copied, it must not be modified
+     */
+    public byte[] body() {
+        return body;
+    }
+
+    public long expiresAt() {
+        return expiresAt;
+    }
+
+    public RawResponse toRawResponse() {
+        return new RawResponse(statusCode, headers, body);
+    }
+
+    /**
+     * Size of the body, used to bound the amount of memory used by the cache
+     */
+    public int weight() {
+        return body.length;
+    }
+
+    public boolean isFreshAt(long timestamp) {
+        return timestamp < expiresAt;
+    }
+
+    public boolean canBeRevalidated() {
+        return eTag() != null || lastModified() != null;
+    }
+
+    public String eTag() {
+        return header("ETag");
+    }
+
+    public String lastModified() {
+        return header("Last-Modified");
+    }
+
+    private String header(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Validators and freshness headers sent with a <code>304</code> replace the stored ones.
+     * Others, like <code>Content-Length: 0</code>, describe the empty <code>304</code> body and
+     * are ignored
+     */
+    CachedResponse refreshedWith(RawResponse notModified, long expiresAt) {
+        Map<String, List<String>> merged = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        merged.putAll(headers);
+        notModified.headers().forEach((name, values) -> {
+            if (REFRESHED_HEADERS.contains(name)) merged.put(name, values);
+        });
+        return of(statusCode, merged, body, expiresAt);
+    }
+
+    private CachedResponse(int statusCode, Map<String, List<String>> headers, byte[] body, long expiresAt) {
+        this.statusCode = statusCode;
+        this.headers = headers;
+        this.body = body;
+        this.expiresAt = expiresAt;
+    }
+}
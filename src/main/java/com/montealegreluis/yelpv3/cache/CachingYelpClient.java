@@ -0,0 +1,99 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+
+import java.time.Clock;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator that keeps responses for the time to live of their endpoint
+ * <p>
+ * Responses are keyed by the URI built by <code>YelpURIs</code>. Once a response is stale, it is
+ * revalidated with <code>If-None-Match</code>/<code>If-Modified-Since</code> if Yelp sent a
+ * validator for it, otherwise it is requested again
+ * <p>
+ * <code>new CachingYelpClient(client, CachePolicy.defaults(), new LruResponseStore(64 * 1024 * 1024))</code>
+ */
+public class CachingYelpClient implements YelpClient {
+    private final YelpClient client;
+    private final CachePolicy policy;
+    private final ResponseStore store;
+    private final Clock clock;
+
+    public CachingYelpClient(YelpClient client, CachePolicy policy, ResponseStore store) {
+        this(client, policy, store, Clock.systemUTC());
+    }
+
+    CachingYelpClient(YelpClient client, CachePolicy policy, ResponseStore store, Clock clock) {
+        this.client = client;
+        this.policy = policy;
+        this.store = store;
+        this.clock = clock;
+    }
+
+    @Override
+    public RawResponse send(YelpRequest request) {
+        if (!isCacheable(request)) return client.send(request);
+
+        CachedResponse cached = store.get(request.uri());
+        if (cached != null && cached.isFreshAt(clock.millis())) return cached.toRawResponse();
+
+        return storeOrRefresh(request, cached, client.send(outgoing(request, cached)));
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        if (!isCacheable(request)) return client.sendAsync(request);
+
+        CachedResponse cached = store.get(request.uri());
+        if (cached != null && cached.isFreshAt(clock.millis()))
+            return CompletableFuture.completedFuture(cached.toRawResponse());
+
+        return client
+            .sendAsync(outgoing(request, cached))
+            .thenApply(response -> storeOrRefresh(request, cached, response))
+        ;
+    }
+
+    @Override
+    public int warmUp(int connections) {
+        return client.warmUp(connections);
+    }
+
+    private boolean isCacheable(YelpRequest request) {
+        return request.isIdempotent() && policy.caches(request.endpoint());
+    }
+
+    /**
+     * Stale responses with validators are revalidated with a conditional request
+     */
+    private YelpRequest outgoing(YelpRequest request, CachedResponse cached) {
+        if (cached == null || !cached.canBeRevalidated()) return request;
+
+        YelpRequest conditional = request;
+        if (cached.eTag() != null) conditional = conditional.withHeader("If-None-Match", cached.eTag());
+        if (cached.lastModified() != null)
+            conditional = conditional.withHeader("If-Modified-Since", cached.lastModified());
+        return conditional;
+    }
+
+    private RawResponse storeOrRefresh(YelpRequest request, CachedResponse cached, RawResponse response) {
+        try (RawResponse body = response) {
+            CachedResponse stored = body.isNotModified() && cached != null
+                ? cached.refreshedWith(body, expiration(request))
+                : new CachedResponse(body, expiration(request))
+            ;
+            store.put(request.uri(), stored);
+            return stored.toRawResponse();
+        }
+    }
+
+    private long expiration(YelpRequest request) {
+        return clock.millis() + policy.timeToLiveMillis(request.endpoint());
+    }
+}
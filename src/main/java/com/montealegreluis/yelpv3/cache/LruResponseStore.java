@@ -0,0 +1,66 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory store bounded by the total size of the cached bodies
+ * <p>
+ * When adding a response exceeds the maximum weight, the least recently used responses are
+ * evicted
+ */
+public class LruResponseStore implements ResponseStore {
+    private final long maximumWeight;
+    private final LinkedHashMap<URI, CachedResponse> responses;
+    private long weight;
+
+    /**
+     * @param maximumWeight Maximum amount of bytes of response bodies kept in memory
+     */
+    public LruResponseStore(long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    public synchronized CachedResponse get(URI uri) {
+        return responses.get(uri);
+    }
+
+    @Override
+    public synchronized void put(URI uri, CachedResponse response) {
+        if (response.weight() > maximumWeight) return;
+
+        CachedResponse previous = responses.put(uri, response);
+        if (previous != null) weight -= previous.weight();
+        weight += response.weight();
+        evictLeastRecentlyUsed();
+    }
+
+    @Override
+    public synchronized void remove(URI uri) {
+        CachedResponse removed = responses.remove(uri);
+        if (removed != null) weight -= removed.weight();
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<URI, CachedResponse>> eldest = responses.entrySet().iterator();
+        while (weight > maximumWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import java.net.URI;
+
+/**
+ * Storage used by <code>CachingYelpClient</code>, responses are keyed by their request URI
+ * <p>
+ * Implementations must be thread safe. Provide your own implementation to share responses
+ * between instances, in Redis or Memcached for instance
+ */
+public interface ResponseStore {
+    /**
+     * @return <code>null</code> if there's no response for the given URI
+     */
+    CachedResponse get(URI uri);
+
+    void put(URI uri, CachedResponse response);
+
+    void remove(URI uri);
+}
@@ -0,0 +1,85 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends requests with a blocking client without blocking the caller
+ * <p>
+ * Waiting for Yelp doesn't take threads from the common fork/join pool, which is used by
+ * parallel streams and <code>ArchiveParser</code>. Each request in flight blocks a thread, use a
+ * non-blocking client to keep many requests in flight with a few threads
+ * <p>
+ * Pooled clients send on their own executor, bounded to the size of their connection pool.
+ * Other blocking clients share a pool of daemon threads. Idle threads are released after a
+ * minute
+ */
+public class BlockingSends {
+    private static final AtomicInteger threads = new AtomicInteger();
+    private static final ExecutorService shared = Executors.newCachedThreadPool(BlockingSends::newThread);
+
+    public static Executor sharedExecutor() {
+        return shared;
+    }
+
+    /**
+     * At most <code>maxThreads</code> requests are sent at the same time, the rest wait in a
+     * queue for a thread to be available
+     */
+    public static ExecutorService bounded(int maxThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            maxThreads,
+            maxThreads,
+            1,
+            TimeUnit.MINUTES,
+            new LinkedBlockingQueue<>(),
+            BlockingSends::newThread
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Cancelling the future doesn't interrupt the request, but its response is closed as soon as
+     * it arrives, so that its connection is released
+     */
+    public static CompletableFuture<RawResponse> sendAsync(
+        YelpClient client,
+        YelpRequest request,
+        Executor executor
+    ) {
+        CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                if (response.isDone()) return;
+                try {
+                    RawResponse rawResponse = client.send(request);
+                    if (!response.complete(rawResponse)) rawResponse.close();
+                } catch (RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "yelp-blocking-send-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private BlockingSends() {
+    }
+}
@@ -4,6 +4,7 @@
 package com.montealegreluis.yelpv3.client;
 
 import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.parser.Parser;
 
 /**
  * Response sent by Yelp's Business API
@@ -11,15 +12,35 @@ import com.montealegreluis.yelpv3.businesses.BusinessDetails;
  * @link https://www.yelp.com/developers/documentation/v3/business
  */
 public class BusinessResponse extends Response {
+    private final Memoized<BusinessDetails> business;
+
     public static BusinessResponse fromOriginalResponse(String jsonResponse) {
-        return new BusinessResponse(jsonResponse);
+        return new BusinessResponse(jsonResponse, DEFAULT_PARSER, null);
+    }
+
+    /**
+     * The original JSON is parsed with <code>parser</code> the first time it's needed
+     */
+    public static BusinessResponse fromOriginalResponse(String jsonResponse, Parser parser) {
+        return new BusinessResponse(jsonResponse, parser, null);
+    }
+
+    /**
+     * Response parsed straight from the HTTP body, without keeping the original JSON
+     */
+    public static BusinessResponse fromBusiness(BusinessDetails business) {
+        return new BusinessResponse(null, DEFAULT_PARSER, business);
     }
 
     public BusinessDetails business() {
-        return parser.business(jsonResponse);
+        return business.get();
     }
 
-    private BusinessResponse(String jsonResponse) {
-        super(jsonResponse);
+    private BusinessResponse(String jsonResponse, Parser parser, BusinessDetails business) {
+        super(jsonResponse, parser);
+        this.business = business != null
+            ? Memoized.of(business)
+            : new Memoized<>(() -> this.parser.business(jsonResponse))
+        ;
     }
 }
@@ -0,0 +1,73 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters to confirm the bandwidth saved by compressed responses
+ * <p>
+ * <ul>
+ * <li><code>compressedBytes</code> were received on the wire</li>
+ * <li><code>decompressedBytes</code> were produced by inflating them</li>
+ * </ul>
+ * <p>
+ * Counters are updated as bodies are read, from any number of threads
+ */
+public class CompressionStatistics {
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder uncompressedResponses = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+
+    public long compressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    public long uncompressedResponses() {
+        return uncompressedResponses.sum();
+    }
+
+    public long compressedBytes() {
+        return compressedBytes.sum();
+    }
+
+    public long decompressedBytes() {
+        return decompressedBytes.sum();
+    }
+
+    /**
+     * Bytes that did not have to be transferred thanks to compression
+     */
+    public long savedBytes() {
+        return decompressedBytes() - compressedBytes();
+    }
+
+    void recordCompressedResponse() {
+        compressedResponses.increment();
+    }
+
+    void recordUncompressedResponse() {
+        uncompressedResponses.increment();
+    }
+
+    void recordCompressed(long bytes) {
+        compressedBytes.add(bytes);
+    }
+
+    void recordDecompressed(long bytes) {
+        decompressedBytes.add(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Compressed responses: %d, uncompressed responses: %d, compressed bytes: %d, decompressed bytes: %d",
+            compressedResponses(),
+            uncompressedResponses(),
+            compressedBytes(),
+            decompressedBytes()
+        );
+    }
+}
@@ -5,6 +5,7 @@ package com.montealegreluis.yelpv3.client;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Yelp's authentication process will require you to provide a client ID and a client secret
@@ -16,7 +17,7 @@ import java.util.Map;
 public class Credentials {
     private final String clientId;
     private final String clientSecret;
-    private AccessToken token;
+    private final AtomicReference<AccessToken> token = new AtomicReference<>();
 
     /**
      * Use this constructor if you don't have a valid access token yet
@@ -32,26 +33,29 @@ public class Credentials {
     public Credentials(String clientId, String clientSecret, AccessToken token) {
         this.clientId = clientId;
         this.clientSecret = clientSecret;
-        this.token = token;
+        this.token.set(token);
     }
 
     public boolean isTokenExpired() {
-        return !hasToken() || token.isExpired();
+        AccessToken current = token.get();
+        return current == null || current.isExpired();
     }
 
     public boolean hasToken() {
-        return token != null;
+        return token.get() != null;
     }
 
     /**
-     * Do not replace the current token unless it is expired
+     * Do not replace the current token unless it is expired or about to expire
+     * <p>
+     * The token is swapped atomically, threads will either see the previous token or the new one
      */
     public void updateToken(AccessToken accessToken) {
-        token = accessToken;
+        token.set(accessToken);
     }
 
     public AccessToken token() {
-        return token;
+        return token.get();
     }
 
     /**
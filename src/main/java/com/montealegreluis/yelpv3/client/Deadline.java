@@ -0,0 +1,66 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time after which a caller is no longer interested in a response
+ * <p>
+ * It's a total budget, connecting, waiting for a pooled connection, retries and reading the
+ * response all have to happen before it expires
+ * <p>
+ * <code>yelp.searchById("gary-danko", Deadline.after(500, MILLISECONDS))</code>
+ */
+public class Deadline {
+    private static final ScheduledThreadPoolExecutor scheduler = newScheduler();
+    private final long expiresAtNanos;
+
+    private Deadline(long expiresAtNanos) {
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static Deadline after(long duration, TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * @return Time left before this deadline expires, <code>0</code> if it already expired
+     */
+    public long remaining(TimeUnit unit) {
+        return unit.convert(Math.max(0, expiresAtNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Runs <code>action</code> on a thread shared by every client once this deadline expires,
+     * clients use it to abort requests still in progress
+     * <p>
+     * Cancel the returned future once the request completes, cancelled actions are removed
+     * right away instead of waiting for their deadline
+     */
+    public ScheduledFuture<?> whenExpired(Runnable action) {
+        return scheduler.schedule(action, remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Deadline in %d ms", remaining(TimeUnit.MILLISECONDS));
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "yelp-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.net.URI;
+
+/**
+ * Exception thrown when a request is aborted because its deadline expired, or because the
+ * caller was interrupted while waiting for it
+ */
+public class DeadlineExceeded extends RuntimeException {
+    private final boolean interrupted;
+
+    private DeadlineExceeded(String message, Throwable cause, boolean interrupted) {
+        super(message, cause);
+        this.interrupted = interrupted;
+    }
+
+    public static DeadlineExceeded forRequest(URI uri) {
+        return new DeadlineExceeded(String.format("Deadline expired before getting a response from %s", uri), null, false);
+    }
+
+    public static DeadlineExceeded forRequest(URI uri, Throwable cause) {
+        return new DeadlineExceeded(String.format("Deadline expired before getting a response from %s", uri), cause, false);
+    }
+
+    public static DeadlineExceeded interrupted(URI uri, Throwable cause) {
+        return new DeadlineExceeded(String.format("Interrupted while waiting for a response from %s", uri), cause, true);
+    }
+
+    /**
+     * @return <code>true</code> if the caller stopped waiting, rather than Yelp being too slow
+     */
+    public boolean isInterrupted() {
+        return interrupted;
+    }
+}
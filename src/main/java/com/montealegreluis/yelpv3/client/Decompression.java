@@ -0,0 +1,81 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Transports ask for compressed bodies and inflate them while they are being read, the whole body
+ * is never buffered before decompressing it
+ */
+public class Decompression {
+    public static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    /**
+     * @param contentEncoding Value of the <code>Content-Encoding</code> header, it may be null
+     */
+    public static InputStream decode(
+        String contentEncoding,
+        InputStream body,
+        CompressionStatistics statistics
+    ) throws IOException {
+        String encoding = contentEncoding == null ? "identity" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        if ("identity".equals(encoding)) {
+            statistics.recordUncompressedResponse();
+            return body;
+        }
+
+        InputStream wire = new CountingInputStream(body, statistics::recordCompressed);
+        InputStream inflated;
+        switch (encoding) {
+            case "gzip":
+            case "x-gzip":
+                inflated = new GZIPInputStream(wire, 8192);
+                break;
+            case "deflate":
+                inflated = new InflaterInputStream(wire);
+                break;
+            default:
+                throw new IOException(String.format("Unsupported content encoding %s", contentEncoding));
+        }
+        statistics.recordCompressedResponse();
+        return new CountingInputStream(inflated, statistics::recordDecompressed);
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongConsumer counter;
+
+        CountingInputStream(InputStream stream, LongConsumer counter) {
+            super(stream);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read != -1) counter.accept(1);
+            return read;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) counter.accept(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long bytes) throws IOException {
+            long skipped = super.skip(bytes);
+            counter.accept(skipped);
+            return skipped;
+        }
+    }
+}
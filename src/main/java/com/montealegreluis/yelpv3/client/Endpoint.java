@@ -0,0 +1,16 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+/**
+ * Yelp endpoints currently supported by this client
+ * <p>
+ * Policies like caching, rate limiting or retries can be configured per endpoint
+ */
+public enum Endpoint {
+    AUTHENTICATION,
+    SEARCH,
+    BUSINESS,
+    REVIEWS
+}
@@ -3,13 +3,76 @@
  */
 package com.montealegreluis.yelpv3.client;
 
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
 public class ErrorResponse extends RuntimeException {
+    private final int statusCode;
+    private final long retryAfterMillis;
+
     public ErrorResponse(int statusCode, String url, String responseBody) {
+        this(statusCode, url, responseBody, null);
+    }
+
+    /**
+     * @param retryAfter Value of the <code>Retry-After</code> header, either seconds or an HTTP date
+     */
+    public ErrorResponse(int statusCode, String url, String responseBody, String retryAfter) {
         super(String.format(
             "HTTP Error occurred%nStatus code: %d%nURI: %s%nResponse body: %s",
             statusCode,
             url,
             responseBody
         ));
+        this.statusCode = statusCode;
+        this.retryAfterMillis = parseRetryAfter(retryAfter);
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Yelp responds with <code>429</code> when either the QPS or the daily limit was exceeded
+     */
+    public boolean isTooManyRequests() {
+        return statusCode == 429;
+    }
+
+    /**
+     * Throttled requests and server errors might succeed if they're sent again, any other
+     * error (invalid parameters, unknown business, invalid token) is permanent
+     */
+    public boolean isRetryable() {
+        return isTooManyRequests() || statusCode == 500 || statusCode == 502 || statusCode == 503 || statusCode == 504;
+    }
+
+    public boolean hasRetryAfter() {
+        return retryAfterMillis >= 0;
+    }
+
+    /**
+     * @return Milliseconds Yelp asked to wait before sending the request again, relative to
+     * when the response was received
+     */
+    public long retryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    private static long parseRetryAfter(String retryAfter) {
+        if (retryAfter == null) return -1;
+
+        String value = retryAfter.trim();
+        try {
+            return Math.max(0, Long.parseLong(value) * 1000);
+        } catch (NumberFormatException notSeconds) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, date.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException notADate) {
+                return -1;
+            }
+        }
     }
 }
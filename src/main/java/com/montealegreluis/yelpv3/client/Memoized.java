@@ -0,0 +1,34 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.util.function.Supplier;
+
+/**
+ * Value computed the first time it's needed, concurrent callers wait for that single computation
+ * and see a fully built value afterwards
+ */
+class Memoized<T> {
+    private final Supplier<T> computation;
+    private volatile T value;
+
+    static <T> Memoized<T> of(T value) {
+        Memoized<T> memoized = new Memoized<>(null);
+        memoized.value = value;
+        return memoized;
+    }
+
+    Memoized(Supplier<T> computation) {
+        this.computation = computation;
+    }
+
+    T get() {
+        T computed = value;
+        if (computed != null) return computed;
+        synchronized (this) {
+            if (value == null) value = computation.get();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * HTTP response as returned by a <code>YelpClient</code>, before it is de-serialized
+ * <p>
+ * Every call to the client produces its own instance, header names are case insensitive
+ * <p>
+ * The body is either buffered in memory or streamed from an open connection. Streamed bodies can
+ * be read only once, and the response must be closed to release its connection
+ */
+public class RawResponse implements Closeable {
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final byte[] bufferedBody;
+    private final InputStream streamedBody;
+    private final Closeable connection;
+
+    public RawResponse(int statusCode, Map<String, List<String>> headers, String body) {
+        this(statusCode, headers, body.getBytes(UTF_8));
+    }
+
+    public RawResponse(int statusCode, Map<String, List<String>> headers, byte[] body) {
+        this(statusCode, headers, body, null, null);
+    }
+
+    /**
+     * @param connection It will be closed when this response is closed
+     */
+    public RawResponse(
+        int statusCode,
+        Map<String, List<String>> headers,
+        InputStream body,
+        Closeable connection
+    ) {
+        this(statusCode, headers, null, body, connection);
+    }
+
+    public int statusCode() {
+        return statusCode;
+    }
+
+    /**
+     * First value of the given header, or <code>null</code> if it is not present
+     */
+    public String header(String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    public Map<String, List<String>> headers() {
+        return headers;
+    }
+
+    /**
+     * Only conditional requests get a <code>304</code> response, transports accept it as a
+     * successful response
+     */
+    public boolean isNotModified() {
+        return statusCode == 304;
+    }
+
+    /**
+     * Status codes that transports should not turn into an <code>ErrorResponse</code>
+     */
+    public static boolean isExpected(int statusCode) {
+        return statusCode == 200 || statusCode == 304;
+    }
+
+    public boolean isBuffered() {
+        return bufferedBody != null;
+    }
+
+    /**
+     * UTF-8 encoded JSON body, without copying it to a <code>String</code> first
+     */
+    public InputStream bodyStream() {
+        return isBuffered() ? new ByteArrayInputStream(bufferedBody) : streamedBody;
+    }
+
+    /**
+     * Reads the whole body into a <code>String</code>
+     */
+    public String body() {
+        return new String(bodyBytes(), UTF_8);
+    }
+
+    /**
+     * Reads the whole body, buffered bodies are returned without copying them
+     */
+    public byte[] bodyBytes() {
+        return isBuffered() ? bufferedBody : readAll(streamedBody);
+    }
+
+    /**
+     * Reads a streamed body into memory and releases the connection
+     * <p>
+     * Useful for decorators that need to read the body more than once
+     */
+    public RawResponse buffered() {
+        if (isBuffered()) return this;
+
+        try {
+            return new RawResponse(statusCode, headers, readAll(streamedBody));
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (connection == null) return;
+
+        try {
+            connection.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static byte[] readAll(InputStream stream) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = stream.read(buffer)) != -1) bytes.write(buffer, 0, read);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private RawResponse(
+        int statusCode,
+        Map<String, List<String>> headers,
+        byte[] bufferedBody,
+        InputStream streamedBody,
+        Closeable connection
+    ) {
+        this.statusCode = statusCode;
+        Map<String, List<String>> caseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        caseInsensitive.putAll(headers);
+        this.headers = Collections.unmodifiableMap(caseInsensitive);
+        this.bufferedBody = bufferedBody;
+        this.streamedBody = streamedBody;
+        this.connection = connection;
+    }
+}
@@ -10,24 +10,48 @@ import com.montealegreluis.yelpv3.parser.Parser;
  * All responses include
  * <p>
  * <ul>
- * <li>The original JSON response</li>
- * <li>A DTO that is generated by default by the <code>JSONParser</code> class</li>
+ * <li>The original JSON response, if the <code>Yelp</code> facade is retaining it</li>
+ * <li>A DTO that is generated with the facade's parser, <code>JSONParser</code> by default</li>
  * </ul>
+ * <p>
+ * The original JSON is parsed at most once, the first time its DTO is needed. Responses can be
+ * shared between threads
  */
 public class Response {
+    static final Parser DEFAULT_PARSER = new JSONParser();
+
     protected final String jsonResponse;
-    protected Parser parser;
+    protected volatile Parser parser;
 
     public Response(String jsonResponse) {
+        this(jsonResponse, DEFAULT_PARSER);
+    }
+
+    Response(String jsonResponse, Parser parser) {
         this.jsonResponse = jsonResponse;
-        parser = new JSONParser();
+        this.parser = parser;
     }
 
+    /**
+     * It has no effect once the DTO has been parsed
+     *
+     * @deprecated Responses use the parser configured in the <code>Yelp</code> facade
+     */
+    @Deprecated
     public void useParser(Parser customParser) {
         parser = customParser;
     }
 
+    public boolean hasOriginalResponse() {
+        return jsonResponse != null;
+    }
+
+    /**
+     * @throws ResponseNotRetained If the original JSON response was parsed without keeping it
+     */
     public String originalResponse() {
+        if (!hasOriginalResponse()) throw ResponseNotRetained.forResponse(this);
+
         return jsonResponse;
     }
 }
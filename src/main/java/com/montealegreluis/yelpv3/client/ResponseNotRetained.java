@@ -0,0 +1,23 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+/**
+ * Exception thrown when the original JSON of a response is requested, but the <code>Yelp</code>
+ * facade was not configured to keep it
+ *
+ * @see com.montealegreluis.yelpv3.Yelp#retainingOriginalResponses()
+ */
+public class ResponseNotRetained extends RuntimeException {
+    private ResponseNotRetained(String message) {
+        super(message);
+    }
+
+    public static ResponseNotRetained forResponse(Response response) {
+        return new ResponseNotRetained(String.format(
+            "Original JSON was not retained for %s, use Yelp#retainingOriginalResponses()",
+            response.getClass().getSimpleName()
+        ));
+    }
+}
@@ -4,6 +4,7 @@
 package com.montealegreluis.yelpv3.client;
 
 import com.montealegreluis.yelpv3.reviews.Review;
+import com.montealegreluis.yelpv3.parser.Parser;
 
 import java.util.List;
 
@@ -13,15 +14,35 @@ import java.util.List;
  * @link https://www.yelp.com/developers/documentation/v3/business_reviews
  */
 public class ReviewsResponse extends Response {
+    private final Memoized<List<Review>> reviews;
+
     public static ReviewsResponse fromOriginalResponse(String jsonResponse) {
-        return new ReviewsResponse(jsonResponse);
+        return new ReviewsResponse(jsonResponse, DEFAULT_PARSER, null);
+    }
+
+    /**
+     * The original JSON is parsed with <code>parser</code> the first time it's needed
+     */
+    public static ReviewsResponse fromOriginalResponse(String jsonResponse, Parser parser) {
+        return new ReviewsResponse(jsonResponse, parser, null);
+    }
+
+    /**
+     * Response parsed straight from the HTTP body, without keeping the original JSON
+     */
+    public static ReviewsResponse fromReviews(List<Review> reviews) {
+        return new ReviewsResponse(null, DEFAULT_PARSER, reviews);
     }
 
     public List<Review> reviews() {
-        return parser.reviews(jsonResponse);
+        return reviews.get();
     }
 
-    private ReviewsResponse(String jsonResponse) {
-        super(jsonResponse);
+    private ReviewsResponse(String jsonResponse, Parser parser, List<Review> reviews) {
+        super(jsonResponse, parser);
+        this.reviews = reviews != null
+            ? Memoized.of(reviews)
+            : new Memoized<>(() -> this.parser.reviews(jsonResponse))
+        ;
     }
 }
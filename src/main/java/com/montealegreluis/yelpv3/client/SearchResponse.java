@@ -4,6 +4,7 @@
 package com.montealegreluis.yelpv3.client;
 
 import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.Parser;
 
 /**
  * Response sent by Yelp's Search API
@@ -11,15 +12,35 @@ import com.montealegreluis.yelpv3.businesses.SearchResult;
  * @link https://www.yelp.com/developers/documentation/v3/business_search
  */
 public class SearchResponse extends Response {
+    private final Memoized<SearchResult> searchResult;
+
     public static SearchResponse fromOriginalResponse(String jsonResponse) {
-        return new SearchResponse(jsonResponse);
+        return new SearchResponse(jsonResponse, DEFAULT_PARSER, null);
+    }
+
+    /**
+     * The original JSON is parsed with <code>parser</code> the first time it's needed
+     */
+    public static SearchResponse fromOriginalResponse(String jsonResponse, Parser parser) {
+        return new SearchResponse(jsonResponse, parser, null);
+    }
+
+    /**
+     * Response parsed straight from the HTTP body, without keeping the original JSON
+     */
+    public static SearchResponse fromSearchResult(SearchResult searchResult) {
+        return new SearchResponse(null, DEFAULT_PARSER, searchResult);
     }
 
     public SearchResult searchResult() {
-        return parser.searchResult(jsonResponse);
+        return searchResult.get();
     }
 
-    private SearchResponse(String jsonResponse) {
-        super(jsonResponse);
+    private SearchResponse(String jsonResponse, Parser parser, SearchResult searchResult) {
+        super(jsonResponse, parser);
+        this.searchResult = searchResult != null
+            ? Memoized.of(searchResult)
+            : new Memoized<>(() -> this.parser.searchResult(jsonResponse))
+        ;
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import javax.net.ssl.SSLException;
+import java.net.UnknownHostException;
+
+/**
+ * Exception thrown when a request could not be sent or its response could not be read
+ * <p>
+ * Connection resets, refused connections and timeouts are retryable. Unknown hosts and TLS
+ * failures are not, they won't go away by sending the request again
+ */
+public class TransportFailure extends RuntimeException {
+    private final boolean retryable;
+
+    private TransportFailure(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public static TransportFailure sending(YelpRequest request, Throwable cause) {
+        return new TransportFailure(
+            String.format("Cannot complete request to %s%n%s", request.uri(), cause.getMessage()),
+            cause,
+            !(cause instanceof UnknownHostException) && !(cause instanceof SSLException)
+        );
+    }
+
+    public static TransportFailure connectingTo(String host, Throwable cause) {
+        return new TransportFailure(
+            String.format("Cannot connect to %s%n%s", host, cause.getMessage()),
+            cause,
+            !(cause instanceof UnknownHostException) && !(cause instanceof SSLException)
+        );
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -3,9 +3,7 @@
  */
 package com.montealegreluis.yelpv3.client;
 
-import com.montealegreluis.yelpv3.search.SearchCriteria;
-
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This client is currently supporting the following endpoints
@@ -16,15 +14,43 @@ import java.util.Map;
  * <li>Business API</li>
  * <li>Reviews API</li>
  * </ul>
+ * <p>
+ * Implementations must be stateless. Each call returns its own response, so that a single client
+ * can be shared by all the threads in an application
  */
 public interface YelpClient {
-    void allBusinessesMatching(SearchCriteria criteria, String accessToken);
-
-    void businessWith(String id, String accessToken);
-
-    void allReviewsFor(String businessId, String accessToken);
+    /**
+     * The body of a successful response is streamed from its connection. Callers must close the
+     * response, even if they don't read its body, or pooled connections are never released.
+     * Responses with an unexpected status code release their connection before throwing
+     * <p>
+     * Previous versions buffered the body and released the connection right away, clients
+     * calling this method directly need to close the responses they get now
+     *
+     * @throws ErrorResponse If Yelp responds with an unexpected status code
+     */
+    RawResponse send(YelpRequest request);
 
-    void authenticate(Map<String, String> credentials);
+    /**
+     * Non-blocking implementations should override this method. By default the request is sent
+     * on the threads of <code>BlockingSends.sharedExecutor()</code>
+     * <p>
+     * Cancelling the future doesn't interrupt the request, but its response is closed as soon as
+     * it arrives, so that its connection is released
+     */
+    default CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        return BlockingSends.sendAsync(this, request, BlockingSends.sharedExecutor());
+    }
 
-    String responseBody();
+    /**
+     * Opens up to <code>connections</code> connections to Yelp ahead of time, so that DNS
+     * lookups, TCP and TLS handshakes don't happen while serving requests
+     * <p>
+     * Decorators should delegate to the client they wrap. By default nothing is done
+     *
+     * @return Number of connections ready to be used
+     */
+    default int warmUp(int connections) {
+        return 0;
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable description of a single call to Yelp's API
+ * <p>
+ * Requests do not share state, which allows a single <code>YelpClient</code> to send them from
+ * any number of threads at the same time
+ */
+public class YelpRequest {
+    private final Endpoint endpoint;
+    private final String method;
+    private final URI uri;
+    private final Map<String, String> headers;
+    private final Map<String, String> formParameters;
+    private final Deadline deadline;
+
+    /**
+     * All the endpoints, except for authentication, are <code>GET</code> requests that need a
+     * bearer token
+     */
+    public static YelpRequest get(Endpoint endpoint, URI uri, String accessToken) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Authorization", String.format("Bearer %s", accessToken));
+        return new YelpRequest(endpoint, "GET", uri, headers, Collections.emptyMap(), null);
+    }
+
+    /**
+     * Authentication sends the credentials as a form encoded <code>POST</code> request
+     */
+    public static YelpRequest post(Endpoint endpoint, URI uri, Map<String, String> formParameters) {
+        return new YelpRequest(endpoint, "POST", uri, Collections.emptyMap(), formParameters, null);
+    }
+
+    public YelpRequest withHeader(String name, String value) {
+        Map<String, String> headers = new LinkedHashMap<>(this.headers);
+        headers.put(name, value);
+        return new YelpRequest(endpoint, method, uri, headers, formParameters, deadline);
+    }
+
+    /**
+     * Clients derive their timeouts from the time left, and abort the request once it expires
+     */
+    public YelpRequest withDeadline(Deadline deadline) {
+        return new YelpRequest(endpoint, method, uri, headers, formParameters, deadline);
+    }
+
+    public Endpoint endpoint() {
+        return endpoint;
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public URI uri() {
+        return uri;
+    }
+
+    public Map<String, String> headers() {
+        return headers;
+    }
+
+    public Map<String, String> formParameters() {
+        return formParameters;
+    }
+
+    public boolean hasDeadline() {
+        return deadline != null;
+    }
+
+    /**
+     * @return <code>null</code> if this request has no deadline
+     */
+    public Deadline deadline() {
+        return deadline;
+    }
+
+    public boolean isIdempotent() {
+        return "GET".equals(method);
+    }
+
+    private YelpRequest(
+        Endpoint endpoint,
+        String method,
+        URI uri,
+        Map<String, String> headers,
+        Map<String, String> formParameters,
+        Deadline deadline
+    ) {
+        this.endpoint = endpoint;
+        this.method = method;
+        this.uri = uri;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.formParameters = Collections.unmodifiableMap(new LinkedHashMap<>(formParameters));
+        this.deadline = deadline;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s %s", method, uri);
+    }
+}
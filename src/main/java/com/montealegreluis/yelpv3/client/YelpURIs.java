@@ -13,6 +13,8 @@ import java.net.URISyntaxException;
  * Factory with links to the endpoints currently available
  */
 public class YelpURIs {
+    public static final String HOST = "api.yelp.com";
+
     public URI searchBy(SearchCriteria criteria) {
         try {
             URIBuilder builder = yelpURIBuilder().setPath("/v3/businesses/search");
@@ -48,6 +50,6 @@ public class YelpURIs {
     }
 
     private URIBuilder yelpURIBuilder() {
-        return new URIBuilder().setScheme("https").setHost("api.yelp.com");
+        return new URIBuilder().setScheme("https").setHost(HOST);
     }
 }
@@ -0,0 +1,29 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.hedging;
+
+/**
+ * Every request earns a fraction of a hedge, a hedge can only be sent once a whole one was
+ * earned. Unused hedges are capped, so that a quiet period doesn't allow a burst of duplicates
+ */
+class HedgeBudget {
+    private static final double MAX_SAVED = 10;
+    private final double earnedPerRequest;
+    private double available = 0;
+
+    HedgeBudget(double earnedPerRequest) {
+        this.earnedPerRequest = earnedPerRequest;
+    }
+
+    synchronized void onRequest() {
+        available = Math.min(MAX_SAVED, available + earnedPerRequest);
+    }
+
+    synchronized boolean tryHedge() {
+        if (available < 1) return false;
+
+        available--;
+        return true;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.hedging;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When a duplicate request is sent, and how many duplicates can be sent
+ * <p>
+ * A request is hedged once it takes longer than the given percentile of the recent latencies of
+ * its endpoint. Until enough latencies are known, <code>initialDelay</code> is used instead
+ * <p>
+ * The budget is the fraction of requests that can be hedged, so that hedging never increases
+ * quota use by more than that fraction
+ * <p>
+ * By default requests are hedged at the 95th percentile, after 100 ms until there are enough
+ * samples, and up to 5% of the requests can be hedged
+ */
+public class HedgingPolicy {
+    private final double percentile;
+    private final long initialDelayNanos;
+    private final double budget;
+    private final int samples;
+
+    public static HedgingPolicy defaults() {
+        return atPercentile(95);
+    }
+
+    public static HedgingPolicy atPercentile(double percentile) {
+        if (percentile <= 0 || percentile >= 100)
+            throw new IllegalArgumentException("Percentile should be between 0 and 100");
+        return new HedgingPolicy(percentile, TimeUnit.MILLISECONDS.toNanos(100), 0.05, 1000);
+    }
+
+    public HedgingPolicy withInitialDelay(long delay, TimeUnit unit) {
+        return new HedgingPolicy(percentile, unit.toNanos(delay), budget, samples);
+    }
+
+    /**
+     * @param fraction Fraction of the requests that can be hedged, <code>0.1</code> means 10%
+     */
+    public HedgingPolicy withBudget(double fraction) {
+        if (fraction < 0 || fraction > 1) throw new IllegalArgumentException("Budget should be between 0 and 1");
+        return new HedgingPolicy(percentile, initialDelayNanos, fraction, samples);
+    }
+
+    /**
+     * @param samples Number of recent latencies used to compute the percentile
+     */
+    public HedgingPolicy withSamples(int samples) {
+        if (samples < 1) throw new IllegalArgumentException("At least one sample is required");
+        return new HedgingPolicy(percentile, initialDelayNanos, budget, samples);
+    }
+
+    double percentile() {
+        return percentile;
+    }
+
+    long initialDelayNanos() {
+        return initialDelayNanos;
+    }
+
+    double budget() {
+        return budget;
+    }
+
+    int samples() {
+        return samples;
+    }
+
+    private HedgingPolicy(double percentile, long initialDelayNanos, double budget, int samples) {
+        this.percentile = percentile;
+        this.initialDelayNanos = initialDelayNanos;
+        this.budget = budget;
+        this.samples = samples;
+    }
+}
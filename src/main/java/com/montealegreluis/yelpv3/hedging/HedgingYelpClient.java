@@ -0,0 +1,165 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.hedging;
+
+import com.montealegreluis.yelpv3.client.Endpoint;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorator that sends a duplicate of slow GET requests, and keeps whichever response arrives
+ * first. The other request is cancelled, and its response closed if it arrives anyway
+ * <p>
+ * With a pooled client, the duplicate is sent on a different connection than the original one
+ * <p>
+ * Requests that are not idempotent are never hedged
+ * <p>
+ * <code>new HedgingYelpClient(client, HedgingPolicy.atPercentile(95).withBudget(0.05))</code>
+ */
+public class HedgingYelpClient implements YelpClient {
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            Thread thread = new Thread(runnable, "yelp-hedging");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+    private final YelpClient client;
+    private final Map<Endpoint, LatencyTracker> latencies = new EnumMap<>(Endpoint.class);
+    private final HedgeBudget budget;
+    private final LongAdder hedged = new LongAdder();
+
+    public HedgingYelpClient(YelpClient client, HedgingPolicy policy) {
+        this.client = client;
+        this.budget = new HedgeBudget(policy.budget());
+        for (Endpoint endpoint : Endpoint.values()) latencies.put(endpoint, new LatencyTracker(
+            policy.percentile(),
+            policy.initialDelayNanos(),
+            policy.samples()
+        ));
+    }
+
+    @Override
+    public RawResponse send(YelpRequest request) {
+        if (!request.isIdempotent()) return client.send(request);
+
+        try {
+            return sendAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        if (!request.isIdempotent()) return client.sendAsync(request);
+
+        budget.onRequest();
+        LatencyTracker tracker = latencies.get(request.endpoint());
+        Race race = new Race(tracker);
+        race.start(request);
+
+        ScheduledFuture<?> hedge = scheduler.schedule(() -> {
+            if (!race.response.isDone() && budget.tryHedge()) {
+                hedged.increment();
+                race.start(request);
+            }
+        }, tracker.delayNanos(), TimeUnit.NANOSECONDS);
+        race.response.whenComplete((response, error) -> {
+            hedge.cancel(false);
+            race.cancelLosers();
+        });
+        return race.response;
+    }
+
+    @Override
+    public int warmUp(int connections) {
+        return client.warmUp(connections);
+    }
+
+    /**
+     * Number of duplicate requests sent so far
+     */
+    public long hedgedRequests() {
+        return hedged.sum();
+    }
+
+    private class Race {
+        private final CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        private final Queue<CompletableFuture<RawResponse>> attempts = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final LatencyTracker tracker;
+        private final long started = System.nanoTime();
+
+        private Race(LatencyTracker tracker) {
+            this.tracker = tracker;
+        }
+
+        /**
+         * The first response wins, a failure is only reported once every attempt has failed
+         * <p>
+         * The winner's latency is measured from the start of the original request, that's how
+         * long the caller waited. Losers are recorded with the time they ran before being
+         * cancelled, or with their own latency if their response arrives anyway, otherwise slow
+         * requests would never be part of the samples
+         */
+        private void start(YelpRequest request) {
+            pending.incrementAndGet();
+            long start = System.nanoTime();
+            CompletableFuture<RawResponse> attempt;
+            try {
+                attempt = client.sendAsync(request);
+            } catch (RuntimeException e) {
+                attempt = new CompletableFuture<>();
+                attempt.completeExceptionally(e);
+            }
+            attempts.add(attempt);
+            attempt.whenComplete((rawResponse, error) -> {
+                if (error == null) {
+                    long finished = System.nanoTime();
+                    if (response.complete(rawResponse)) {
+                        tracker.record(finished - started);
+                    } else {
+                        tracker.record(finished - start);
+                        rawResponse.close();
+                    }
+                } else if (error instanceof CancellationException && lost()) {
+                    tracker.record(System.nanoTime() - start);
+                } else if (pending.decrementAndGet() == 0) {
+                    response.completeExceptionally(
+                        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error
+                    );
+                }
+            });
+            if (response.isDone()) cancelLosers();
+        }
+
+        /**
+         * Attempts cancelled because the caller cancelled the race didn't lose to another one
+         */
+        private boolean lost() {
+            return response.isDone() && !response.isCancelled();
+        }
+
+        private void cancelLosers() {
+            for (CompletableFuture<RawResponse> attempt : attempts) attempt.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.hedging;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latencies of an endpoint in a ring buffer
+ * <p>
+ * The percentile is recomputed every few samples, not on every request
+ */
+class LatencyTracker {
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 50;
+    private final double percentile;
+    private final long fallbackNanos;
+    private final long[] samples;
+    private int next = 0;
+    private int count = 0;
+    private int sinceLastUpdate = 0;
+    private long percentileNanos;
+
+    LatencyTracker(double percentile, long fallbackNanos, int capacity) {
+        this.percentile = percentile;
+        this.fallbackNanos = fallbackNanos;
+        this.samples = new long[capacity];
+        this.percentileNanos = fallbackNanos;
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+
+        sinceLastUpdate++;
+        if (count == Math.min(MIN_SAMPLES, samples.length) || sinceLastUpdate >= RECOMPUTE_EVERY) recompute();
+    }
+
+    synchronized long delayNanos() {
+        return count < Math.min(MIN_SAMPLES, samples.length) ? fallbackNanos : percentileNanos;
+    }
+
+    private void recompute() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        percentileNanos = sorted[Math.max(0, Math.min(rank, count - 1))];
+        sinceLastUpdate = 0;
+    }
+}
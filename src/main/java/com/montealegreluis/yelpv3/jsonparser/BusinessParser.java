@@ -5,68 +5,91 @@ package com.montealegreluis.yelpv3.jsonparser;
 
 import com.montealegreluis.yelpv3.businesses.*;
 import com.montealegreluis.yelpv3.businesses.distance.Distance;
+import com.montealegreluis.yelpv3.parser.Flyweights;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
 import com.montealegreluis.yelpv3.parser.ParsingFailure;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.time.DayOfWeek;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
+/**
+ * Parsers without <code>errors</code> are strict, they fail on the first value they can't read
+ */
 class BusinessParser {
-    static BusinessDetails detailsFrom(JSONObject information) {
-        try {
-            return new BusinessDetails(
-                information.getDouble("rating"),
-                information.has("price") ? PricingLevel.fromSymbol(information.getString("price")) : PricingLevel.NONE,
-                information.getString("phone"),
-                information.getString("id"),
-                information.getBoolean("is_closed"),
-                buildCategories(information.getJSONArray("categories")),
-                information.getInt("review_count"),
-                information.getString("name"),
-                new URL(information.getString("url")),
-                CoordinatesParser.from(information.getJSONObject("coordinates")),
-                new URL(information.getString("image_url")),
-                LocationParser.from(information.getJSONObject("location")),
-                !information.isNull("distance") ? Distance.inMeters(information.getDouble("distance")) : null,
-                buildTransactions(information.getJSONArray("transactions")),
-                !information.isNull("is_claimed") && information.getBoolean("is_claimed"),
-                !information.isNull("photos") ? buildPhotos(information.getJSONArray("photos")) : null,
-                !information.isNull("hours") ? ScheduleParser.from(information.getJSONArray("hours")) : null
-            );
-        } catch (JSONException | MalformedURLException exception) {
-            throw ParsingFailure.producedBy(information, exception);
-        }
+    static BusinessDetails detailsFrom(JSONObject information, ParsingErrors errors) {
+        Members business = new Members(information, errors);
+        return new BusinessDetails(
+            business.required("rating", JSONObject::getDouble),
+            business.optional("price", BusinessParser::pricingLevel, PricingLevel.NONE),
+            business.required("phone", JSONObject::getString),
+            business.required("id", JSONObject::getString),
+            business.required("is_closed", JSONObject::getBoolean),
+            business.required("categories", (json, member) -> buildCategories(json.getJSONArray(member))),
+            business.required("review_count", JSONObject::getInt),
+            business.required("name", JSONObject::getString),
+            business.required("url", (json, member) -> Link.to(json.getString(member))),
+            business.required("coordinates", (json, member) -> CoordinatesParser.from(json.getJSONObject(member))),
+            business.optional("image_url", (json, member) -> Link.to(json.getString(member)), null),
+            business.required("location", (json, member) -> LocationParser.from(json.getJSONObject(member))),
+            business.optional("distance", BusinessParser::distance, null),
+            business.required("transactions", (json, member) -> buildTransactions(json.getJSONArray(member))),
+            business.optional("is_claimed", (json, member) -> !json.isNull(member) && json.getBoolean(member), false),
+            business.optional("photos", BusinessParser::photos, null),
+            business.optional("hours", BusinessParser::schedule, null)
+        );
     }
 
     static Business businessFrom(JSONObject information) {
-        try {
-            return new Business(
-                information.getDouble("rating"),
-                information.has("price") ? PricingLevel.fromSymbol(information.getString("price")) : PricingLevel.NONE,
-                information.getString("phone"),
-                information.getString("id"),
-                information.getBoolean("is_closed"),
-                buildCategories(information.getJSONArray("categories")),
-                information.getInt("review_count"),
-                information.getString("name"),
-                new URL(information.getString("url")),
-                CoordinatesParser.from(information.getJSONObject("coordinates")),
-                !information.getString("image_url").trim().isEmpty() ? new URL(information.getString("image_url")) : null,
-                LocationParser.from(information.getJSONObject("location")),
-                !information.isNull("distance") ? Distance.inMeters(information.getDouble("distance")) : null,
-                buildTransactions(information.getJSONArray("transactions"))
-            );
-        } catch (JSONException | MalformedURLException exception) {
-            throw ParsingFailure.producedBy(information, exception);
-        }
+        return businessFrom(information, null);
+    }
+
+    static Business businessFrom(JSONObject information, ParsingErrors errors) {
+        Members business = new Members(information, errors);
+        return new Business(
+            business.required("rating", JSONObject::getDouble),
+            business.optional("price", BusinessParser::pricingLevel, PricingLevel.NONE),
+            business.required("phone", JSONObject::getString),
+            business.required("id", JSONObject::getString),
+            business.required("is_closed", JSONObject::getBoolean),
+            business.required("categories", (json, member) -> buildCategories(json.getJSONArray(member))),
+            business.required("review_count", JSONObject::getInt),
+            business.required("name", JSONObject::getString),
+            business.required("url", (json, member) -> Link.to(json.getString(member))),
+            business.required("coordinates", (json, member) -> CoordinatesParser.from(json.getJSONObject(member))),
+            business.optional("image_url", BusinessParser::image, null),
+            business.required("location", (json, member) -> LocationParser.from(json.getJSONObject(member))),
+            business.optional("distance", BusinessParser::distance, null),
+            business.required("transactions", (json, member) -> buildTransactions(json.getJSONArray(member)))
+        );
+    }
+
+    private static PricingLevel pricingLevel(JSONObject information, String member) {
+        return information.has(member) ? PricingLevel.fromSymbol(information.getString(member)) : PricingLevel.NONE;
+    }
+
+    private static Link image(JSONObject information, String member) {
+        String image = information.getString(member);
+        return !image.trim().isEmpty() ? Link.to(image) : null;
+    }
+
+    private static Distance distance(JSONObject information, String member) {
+        return !information.isNull(member) ? Distance.inMeters(information.getDouble(member)) : null;
+    }
+
+    private static List<Link> photos(JSONObject information, String member) {
+        return !information.isNull(member) ? buildPhotos(information.getJSONArray(member)) : null;
+    }
+
+    private static Schedule schedule(JSONObject information, String member) {
+        return !information.isNull(member) ? ScheduleParser.from(information.getJSONArray(member)) : null;
     }
 
     private static Categories buildCategories(JSONArray businessCategories) {
@@ -79,23 +102,55 @@ class BusinessParser {
     private static List<Transaction> buildTransactions(JSONArray registeredTransactions) {
         List<Transaction> transactions = new ArrayList<>();
         for (int i = 0; i < registeredTransactions.length(); i++)
-            transactions.add(new Transaction(registeredTransactions.getString(i)));
+            transactions.add(Flyweights.transaction(registeredTransactions.getString(i)));
         return transactions;
     }
 
-    private static List<URL> buildPhotos(JSONArray businessPhotos) throws MalformedURLException {
-        List<URL> photos = new ArrayList<>();
+    private static List<Link> buildPhotos(JSONArray businessPhotos) {
+        List<Link> photos = new ArrayList<>();
 
         for (int i = 0; i < businessPhotos.length(); i++)
-            photos.add(new URL(businessPhotos.getString(i)));
+            photos.add(Link.to(businessPhotos.getString(i)));
 
         return photos;
     }
 }
 
+/**
+ * Failures are attributed to the member being read. Lenient parsers leave the optional members
+ * they can't read empty, whatever the reason
+ */
+class Members {
+    private final JSONObject information;
+    private final ParsingErrors errors;
+
+    Members(JSONObject information, ParsingErrors errors) {
+        this.information = information;
+        this.errors = errors;
+    }
+
+    <T> T required(String member, BiFunction<JSONObject, String, T> value) {
+        try {
+            return value.apply(information, member);
+        } catch (JSONException | InvalidLink exception) {
+            throw ParsingFailure.producedBy(information, member, exception);
+        }
+    }
+
+    <T> T optional(String member, BiFunction<JSONObject, String, T> value, T empty) {
+        if (errors == null) return required(member, value);
+        try {
+            return value.apply(information, member);
+        } catch (RuntimeException exception) {
+            errors.recordEmpty(member);
+            return empty;
+        }
+    }
+}
+
 class CategoryParser {
     static Category from(JSONObject category) {
-        return new Category(
+        return Flyweights.category(
             category.getString("alias"),
             category.getString("title")
         );
@@ -115,13 +170,13 @@ class LocationParser {
     static Location from(JSONObject location) {
         return new Location(
             !location.isNull("address1") ? location.getString("address1") : null,
-            !location.isNull("address2") ? location.getString("address2") : null,
-            !location.isNull("address3") ? location.getString("address3") : null,
-            location.getString("city"),
-            location.getString("state"),
-            location.getString("country"),
-            location.getString("zip_code"),
-            !location.isNull("cross_streets") ? location.getString("cross_streets") : "",
+            !location.isNull("address2") ? Flyweights.string(location.getString("address2")) : null,
+            !location.isNull("address3") ? Flyweights.string(location.getString("address3")) : null,
+            Flyweights.string(location.getString("city")),
+            Flyweights.string(location.getString("state")),
+            Flyweights.string(location.getString("country")),
+            Flyweights.string(location.getString("zip_code")),
+            !location.isNull("cross_streets") ? Flyweights.string(location.getString("cross_streets")) : "",
             !location.isNull("display_address") ? setDisplayAddress(location.getJSONArray("display_address")) : null
         );
     }
@@ -130,7 +185,7 @@ class LocationParser {
         List<String> displayAddress = new ArrayList<>();
 
         for (int i = 0; i < businessDisplayAddress.length(); i++)
-            displayAddress.add(businessDisplayAddress.getString(i));
+            displayAddress.add(Flyweights.string(businessDisplayAddress.getString(i)));
 
         return displayAddress;
     }
@@ -7,20 +7,48 @@ import com.montealegreluis.yelpv3.businesses.BusinessDetails;
 import com.montealegreluis.yelpv3.businesses.SearchResult;
 import com.montealegreluis.yelpv3.client.AccessToken;
 import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
 import com.montealegreluis.yelpv3.reviews.Review;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Lenient parsers skip the businesses in a search result they can't read, and leave empty the
+ * optional values they can't read
+ */
 public class JSONParser implements Parser {
+    private final ParsingErrors errors;
+
+    public JSONParser() {
+        this(null);
+    }
+
+    private JSONParser(ParsingErrors errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @param errors Counts the values that couldn't be read
+     */
+    public static JSONParser lenient(ParsingErrors errors) {
+        return new JSONParser(errors);
+    }
+
     @Override
     public BusinessDetails business(String response) {
-        return BusinessParser.detailsFrom(new JSONObject(response));
+        return BusinessParser.detailsFrom(new JSONObject(response), errors);
     }
 
     @Override
     public SearchResult searchResult(String response) {
-        return SearchResultParser.parseFrom(new JSONObject(response));
+        return SearchResultParser.parseFrom(new JSONObject(response), errors);
     }
 
     @Override
@@ -30,8 +58,48 @@ public class JSONParser implements Parser {
 
     @Override
     public AccessToken token(String response) {
-        JSONObject token = new JSONObject(response);
+        return tokenFrom(new JSONObject(response));
+    }
+
+    @Override
+    public BusinessDetails business(InputStream response) {
+        return BusinessParser.detailsFrom(new JSONObject(tokenize(response)), errors);
+    }
+
+    @Override
+    public SearchResult searchResult(InputStream response) {
+        return SearchResultParser.parseFrom(new JSONObject(tokenize(response)), errors);
+    }
+
+    @Override
+    public List<Review> reviews(InputStream response) {
+        return ReviewsParser.parseFrom(new JSONObject(tokenize(response)));
+    }
+
+    @Override
+    public AccessToken token(InputStream response) {
+        return tokenFrom(new JSONObject(tokenize(response)));
+    }
+
+    @Override
+    public void reviews(String response, Consumer<? super Review> consumer) {
+        ReviewsParser.parseFrom(new JSONObject(response), consumer);
+    }
+
+    @Override
+    public void reviews(InputStream response, Consumer<? super Review> consumer) {
+        ReviewsParser.parseFrom(new JSONObject(tokenize(response)), consumer);
+    }
+
+    /**
+     * The tokener reads characters from the stream as it needs them, the body is never copied
+     * into a <code>String</code>
+     */
+    private JSONTokener tokenize(InputStream response) {
+        return new JSONTokener(new InputStreamReader(response, UTF_8));
+    }
 
+    private AccessToken tokenFrom(JSONObject token) {
         return AccessToken.fromYELP(
             token.getString("access_token"),
             token.getString("token_type"),
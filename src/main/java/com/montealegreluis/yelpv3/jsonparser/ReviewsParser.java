@@ -3,44 +3,60 @@
  */
 package com.montealegreluis.yelpv3.jsonparser;
 
+import com.montealegreluis.yelpv3.businesses.InvalidLink;
+import com.montealegreluis.yelpv3.businesses.Link;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+import com.montealegreluis.yelpv3.parser.ReviewTimes;
 import com.montealegreluis.yelpv3.reviews.Review;
 import com.montealegreluis.yelpv3.reviews.User;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 class ReviewsParser {
     static List<Review> parseFrom(JSONObject reviewsResult) {
-        JSONArray jsonReviews = reviewsResult.getJSONArray("reviews");
         List<Review> reviews = new ArrayList<>();
+        parseFrom(reviewsResult, reviews::add);
+        return reviews;
+    }
 
-        for (int i = 0; i < jsonReviews.length(); i++)
-            reviews.add(parseReview(jsonReviews.getJSONObject(i)));
+    static void parseFrom(JSONObject reviewsResult, Consumer<? super Review> consumer) {
+        JSONArray jsonReviews = reviewsResult.getJSONArray("reviews");
 
-        return reviews;
+        for (int i = 0; i < jsonReviews.length(); i++)
+            consumer.accept(parseReview(jsonReviews.getJSONObject(i)));
     }
 
     private static Review parseReview(JSONObject jsonReview) {
         JSONObject jsonUser = jsonReview.getJSONObject("user");
-        DateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
 
+        return new Review(
+            jsonReview.getInt("rating"),
+            new User(link(jsonReview, jsonUser.getString("image_url"), "user.image_url"), jsonUser.getString("name")),
+            jsonReview.getString("text"),
+            timeCreated(jsonReview),
+            link(jsonReview, jsonReview.getString("url"), "url")
+        );
+    }
+
+    private static LocalDateTime timeCreated(JSONObject jsonReview) {
+        try {
+            return ReviewTimes.parse(jsonReview.getString("time_created"));
+        } catch (DateTimeException e) {
+            throw ParsingFailure.producedBy(jsonReview, "time_created", e);
+        }
+    }
+
+    private static Link link(JSONObject jsonReview, String value, String field) {
         try {
-            return new Review(
-                jsonReview.getInt("rating"),
-                new User(new URL(jsonUser.getString("image_url")), jsonUser.getString("name")),
-                jsonReview.getString("text"),
-                format.parse(jsonReview.getString("time_created")),
-                new URL(jsonReview.getString("url"))
-            );
-        } catch (MalformedURLException | ParseException e) {
-            throw new RuntimeException(e);
+            return Link.to(value);
+        } catch (InvalidLink e) {
+            throw ParsingFailure.producedBy(jsonReview, field, e);
         }
     }
 }
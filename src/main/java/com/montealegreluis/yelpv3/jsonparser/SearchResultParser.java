@@ -7,27 +7,55 @@ import com.montealegreluis.yelpv3.businesses.Business;
 import com.montealegreluis.yelpv3.businesses.Businesses;
 import com.montealegreluis.yelpv3.businesses.Region;
 import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
 import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.List;
 
 class SearchResultParser {
-    static SearchResult parseFrom(JSONObject result) {
+    static SearchResult parseFrom(JSONObject result, ParsingErrors errors) {
         return new SearchResult(
             result.getInt("total"),
-            parseBusinesses(result.getJSONArray("businesses")),
+            parseBusinesses(result.getJSONArray("businesses"), errors),
             Region.withCenter(CoordinatesParser.from(
                 result.getJSONObject("region").getJSONObject("center")
             ))
         );
     }
 
-    private static Businesses parseBusinesses(JSONArray businessResults) {
+    private static Businesses parseBusinesses(JSONArray businessResults, ParsingErrors errors) {
         List<Business> businesses = new ArrayList<>();
-        for (int i = 0; i < businessResults.length(); i++)
-            businesses.add(BusinessParser.businessFrom(businessResults.getJSONObject(i)));
+        for (int i = 0; i < businessResults.length(); i++) {
+            if (errors == null) businesses.add(BusinessParser.businessFrom(businessResults.getJSONObject(i)));
+            else parseLeniently(businessResults, i, errors, businesses);
+        }
         return new Businesses(businesses);
     }
+
+    /**
+     * A business that can't be read is skipped, the rest of the page is kept
+     */
+    private static void parseLeniently(
+        JSONArray businessResults,
+        int index,
+        ParsingErrors errors,
+        List<Business> businesses
+    ) {
+        JSONObject information = businessResults.optJSONObject(index);
+        if (information == null) {
+            errors.recordSkipped(ParsingFailure.producedBy(null, new JSONException(
+                String.format("business at index %d is not an object", index)
+            )));
+            return;
+        }
+        try {
+            businesses.add(BusinessParser.businessFrom(information, errors));
+        } catch (ParsingFailure e) {
+            errors.recordSkipped(e);
+        }
+    }
 }
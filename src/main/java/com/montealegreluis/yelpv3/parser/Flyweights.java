@@ -0,0 +1,80 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import com.montealegreluis.yelpv3.businesses.Category;
+import com.montealegreluis.yelpv3.businesses.Transaction;
+
+/**
+ * Canonical instances of the values repeated across many businesses, like categories,
+ * transactions, cities, states or display addresses
+ * <p>
+ * Each pool is a fixed size table indexed by hash code, a new value takes the slot of whatever
+ * value was there before. Memory is bounded, and popular values stay canonical while rare ones
+ * are evicted. Pooled values are immutable, concurrent updates can only cause a missed lookup
+ */
+public final class Flyweights {
+    private static final Category[] categories = new Category[2048];
+    private static final Transaction[] transactions = new Transaction[32];
+    private static final String[] strings = new String[8192];
+
+    public static Category category(String alias, String title) {
+        int slot = alias.hashCode() & (categories.length - 1);
+        Category category = categories[slot];
+        if (category != null && category.alias.equals(alias) && category.title.equals(title)) return category;
+
+        category = new Category(string(alias), string(title));
+        categories[slot] = category;
+        return category;
+    }
+
+    public static Transaction transaction(String type) {
+        int slot = type.hashCode() & (transactions.length - 1);
+        Transaction transaction = transactions[slot];
+        if (transaction != null && transaction.type.equals(type)) return transaction;
+
+        transaction = new Transaction(type);
+        transactions[slot] = transaction;
+        return transaction;
+    }
+
+    /**
+     * @return <code>null</code> if <code>value</code> is <code>null</code>
+     */
+    public static String string(String value) {
+        if (value == null) return null;
+
+        int slot = value.hashCode() & (strings.length - 1);
+        String pooled = strings[slot];
+        if (value.equals(pooled)) return pooled;
+
+        strings[slot] = value;
+        return value;
+    }
+
+    /**
+     * A new <code>String</code> is allocated only if its characters are not pooled already
+     */
+    public static String string(char[] characters, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) hash = 31 * hash + characters[i];
+
+        int slot = hash & (strings.length - 1);
+        String pooled = strings[slot];
+        if (pooled != null && matches(pooled, characters, offset, length)) return pooled;
+
+        String value = new String(characters, offset, length);
+        strings[slot] = value;
+        return value;
+    }
+
+    private static boolean matches(String pooled, char[] characters, int offset, int length) {
+        if (pooled.length() != length) return false;
+        for (int i = 0; i < length; i++) if (pooled.charAt(i) != characters[offset + i]) return false;
+        return true;
+    }
+
+    private Flyweights() {
+    }
+}
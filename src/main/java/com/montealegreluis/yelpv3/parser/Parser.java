@@ -4,12 +4,31 @@
 package com.montealegreluis.yelpv3.parser;
 
 import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.businesses.BusinessField;
+import com.montealegreluis.yelpv3.businesses.BusinessProjection;
 import com.montealegreluis.yelpv3.businesses.SearchResult;
 import com.montealegreluis.yelpv3.client.AccessToken;
 import com.montealegreluis.yelpv3.reviews.Review;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+/**
+ * Streams, byte arrays and buffers contain UTF-8 encoded JSON. By default streams are read into a
+ * <code>String</code> first, parsers able to consume them incrementally should override the
+ * <code>InputStream</code> methods
+ * <p>
+ * Byte arrays and buffers are read as streams by default. Buffers are read from their position to
+ * their limit, without changing them, so that pooled or direct buffers can be parsed as they are
+ * <p>
+ * Reviews can be pushed to a consumer instead of being collected into a list. By default the list
+ * is parsed first, parsers able to read reviews one at a time should override them
+ */
 public interface Parser {
     BusinessDetails business(String response);
 
@@ -18,4 +37,94 @@ public interface Parser {
     List<Review> reviews(String response);
 
     AccessToken token(String response);
+
+    /**
+     * Businesses in a search result with only the given fields. By default the whole result is
+     * parsed first, parsers able to skip the other values should override it
+     */
+    default List<BusinessProjection> businesses(String response, Set<BusinessField> fields) {
+        Set<BusinessField> projected = BusinessProjection.fieldsOf(fields);
+        return searchResult(response)
+            .businesses
+            .stream()
+            .map(business -> BusinessProjection.from(business, projected))
+            .collect(Collectors.toList())
+        ;
+    }
+
+    default BusinessDetails business(InputStream response) {
+        return business(Streams.read(response));
+    }
+
+    default SearchResult searchResult(InputStream response) {
+        return searchResult(Streams.read(response));
+    }
+
+    default List<Review> reviews(InputStream response) {
+        return reviews(Streams.read(response));
+    }
+
+    default AccessToken token(InputStream response) {
+        return token(Streams.read(response));
+    }
+
+    default List<BusinessProjection> businesses(InputStream response, Set<BusinessField> fields) {
+        return businesses(Streams.read(response), fields);
+    }
+
+    default BusinessDetails business(byte[] response) {
+        return business(new ByteArrayInputStream(response));
+    }
+
+    default SearchResult searchResult(byte[] response) {
+        return searchResult(new ByteArrayInputStream(response));
+    }
+
+    default List<Review> reviews(byte[] response) {
+        return reviews(new ByteArrayInputStream(response));
+    }
+
+    default AccessToken token(byte[] response) {
+        return token(new ByteArrayInputStream(response));
+    }
+
+    default List<BusinessProjection> businesses(byte[] response, Set<BusinessField> fields) {
+        return businesses(new ByteArrayInputStream(response), fields);
+    }
+
+    default BusinessDetails business(ByteBuffer response) {
+        return business(new ByteBufferInputStream(response));
+    }
+
+    default SearchResult searchResult(ByteBuffer response) {
+        return searchResult(new ByteBufferInputStream(response));
+    }
+
+    default List<Review> reviews(ByteBuffer response) {
+        return reviews(new ByteBufferInputStream(response));
+    }
+
+    default AccessToken token(ByteBuffer response) {
+        return token(new ByteBufferInputStream(response));
+    }
+
+    default List<BusinessProjection> businesses(ByteBuffer response, Set<BusinessField> fields) {
+        return businesses(new ByteBufferInputStream(response), fields);
+    }
+
+    default void reviews(String response, Consumer<? super Review> consumer) {
+        reviews(response).forEach(consumer);
+    }
+
+    default void reviews(InputStream response, Consumer<? super Review> consumer) {
+        reviews(response).forEach(consumer);
+    }
+
+    default void reviews(byte[] response, Consumer<? super Review> consumer) {
+        reviews(response).forEach(consumer);
+    }
+
+    default void reviews(ByteBuffer response, Consumer<? super Review> consumer) {
+        reviews(response).forEach(consumer);
+    }
 }
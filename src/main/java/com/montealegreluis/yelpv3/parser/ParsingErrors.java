@@ -0,0 +1,69 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of the values a lenient parser couldn't read, grouped by field
+ * <p>
+ * Entries that couldn't be read are skipped, optional values that couldn't be read are left
+ * empty. A single instance can be shared by parsers running in many threads
+ */
+public class ParsingErrors {
+    private static final String UNKNOWN_FIELD = "(unknown)";
+
+    private final ConcurrentMap<String, LongAdder> byField = new ConcurrentHashMap<>();
+    private final LongAdder skippedEntries = new LongAdder();
+    private final LongAdder emptyValues = new LongAdder();
+    private volatile ParsingFailure lastFailure;
+
+    public void recordSkipped(ParsingFailure failure) {
+        skippedEntries.increment();
+        count(failure.field());
+        lastFailure = failure;
+    }
+
+    public void recordEmpty(String field) {
+        emptyValues.increment();
+        count(field);
+    }
+
+    public long skippedEntries() {
+        return skippedEntries.sum();
+    }
+
+    public long emptyValues() {
+        return emptyValues.sum();
+    }
+
+    public long errorsIn(String field) {
+        LongAdder errors = byField.get(field);
+        return errors == null ? 0 : errors.sum();
+    }
+
+    /**
+     * Entries skipped without knowing which field failed are counted as <code>(unknown)</code>
+     */
+    public Map<String, Long> errorsByField() {
+        Map<String, Long> errors = new TreeMap<>();
+        byField.forEach((field, count) -> errors.put(field, count.sum()));
+        return errors;
+    }
+
+    /**
+     * @return <code>null</code> if no entry has been skipped
+     */
+    public ParsingFailure lastFailure() {
+        return lastFailure;
+    }
+
+    private void count(String field) {
+        byField.computeIfAbsent(field == null ? UNKNOWN_FIELD : field, name -> new LongAdder()).increment();
+    }
+}
@@ -5,16 +5,117 @@ package com.montealegreluis.yelpv3.parser;
 
 import org.json.JSONObject;
 
+/**
+ * Its message is built the first time it's read, lenient parsers can record failures without
+ * paying for formatting the object or the position that produced them
+ * <p>
+ * No stack trace is filled, the message tells where the document failed to parse and the cause
+ * keeps its own trace
+ */
 public class ParsingFailure extends RuntimeException {
+    private final JSONObject information;
+    private final long position;
+    private final String reason;
+    private final boolean malformed;
+    private String field;
+    private String message;
 
-    private ParsingFailure(String format, Exception e) {
-        super(format, e);
+    private ParsingFailure(
+        JSONObject information,
+        long position,
+        String reason,
+        String field,
+        boolean malformed,
+        Throwable cause
+    ) {
+        super(null, cause, false, false);
+        this.information = information;
+        this.position = position;
+        this.reason = reason;
+        this.field = field;
+        this.malformed = malformed;
     }
 
     public static ParsingFailure producedBy(JSONObject information, Exception exception) {
-        return new ParsingFailure(
-            String.format("Cannot parse object%n%s", information.toString(2)),
-            exception
-        );
+        return new ParsingFailure(information, -1, null, null, false, exception);
+    }
+
+    public static ParsingFailure producedBy(JSONObject information, String field, Exception exception) {
+        return new ParsingFailure(information, -1, null, field, false, exception);
+    }
+
+    /**
+     * Streaming parsers never hold the whole object, they report the position of the character
+     * where parsing failed instead
+     */
+    public static ParsingFailure at(long position, String reason) {
+        return new ParsingFailure(null, position, reason, null, false, null);
+    }
+
+    public static ParsingFailure at(long position, Exception exception) {
+        return new ParsingFailure(null, position, null, null, false, exception);
+    }
+
+    public static ParsingFailure missing(long position, String field) {
+        return new ParsingFailure(null, position, "it is missing", field, false, null);
+    }
+
+    /**
+     * The document itself is broken, no value after this position can be trusted
+     */
+    public static ParsingFailure malformedAt(long position, String reason) {
+        return new ParsingFailure(null, position, reason, null, true, null);
+    }
+
+    public static ParsingFailure malformedAt(long position, Exception exception) {
+        return new ParsingFailure(null, position, null, null, true, exception);
+    }
+
+    /**
+     * Nested fields are prefixed with the name of the member containing them,
+     * <code>location.city</code> for instance
+     *
+     * @return This failure, attributed to the given member
+     */
+    public synchronized ParsingFailure inField(String member) {
+        field = field == null ? member : String.format("%s.%s", member, field);
+        message = null;
+        return this;
+    }
+
+    /**
+     * @return <code>null</code> if the failure can't be attributed to a single field
+     */
+    public synchronized String field() {
+        return field;
+    }
+
+    public boolean isMalformed() {
+        return malformed;
+    }
+
+    @Override
+    public synchronized String getMessage() {
+        if (message == null) message = information != null ? describeObject() : describePosition();
+        return message;
+    }
+
+    private String reason() {
+        return reason != null ? reason : getCause().getMessage();
+    }
+
+    private String describeObject() {
+        return field == null
+            ? String.format("Cannot parse object%n%s", information.toString(2))
+            : String.format("Cannot parse \"%s\" in object%n%s", field, information.toString(2))
+        ;
+    }
+
+    private String describePosition() {
+        if (position < 0) return String.format("Cannot parse JSON, %s", reason());
+        return field == null
+            ? String.format("Cannot parse JSON at character %d, %s", position, reason())
+            : String.format("Cannot parse \"%s\" at character %d, %s", field, position, reason())
+        ;
     }
 }
@@ -0,0 +1,60 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reviews are created at local times formatted as <code>yyyy-MM-dd HH:mm:ss</code>
+ * <p>
+ * The formatter is immutable and shared by every parser and thread. Times in the expected layout
+ * are read digit by digit, only anything else goes through the formatter
+ */
+public final class ReviewTimes {
+    public static final DateTimeFormatter FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * @throws java.time.DateTimeException If <code>text</code> is not a valid time
+     */
+    public static LocalDateTime parse(String text) {
+        if (!hasLayout(text)) return LocalDateTime.parse(text, FORMAT);
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = digits(text, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0) return LocalDateTime.parse(text, FORMAT);
+
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static boolean hasLayout(String text) {
+        return text.length() == 19
+            && text.charAt(4) == '-'
+            && text.charAt(7) == '-'
+            && text.charAt(10) == ' '
+            && text.charAt(13) == ':'
+            && text.charAt(16) == ':'
+        ;
+    }
+
+    /**
+     * @return <code>-1</code> if any of the characters is not a digit
+     */
+    private static int digits(String text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            char digit = text.charAt(i);
+            if (digit < '0' || digit > '9') return -1;
+            value = value * 10 + (digit - '0');
+        }
+        return value;
+    }
+
+    private ReviewTimes() {
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import java.io.InputStream;
+import java.util.Scanner;
+
+/**
+ * Reads whole UTF-8 encoded responses, for parsers that can't consume streams incrementally
+ */
+final class Streams {
+    static String read(InputStream response) {
+        Scanner scanner = new Scanner(response, "UTF-8").useDelimiter("\\A");
+        return scanner.hasNext() ? scanner.next() : "";
+    }
+
+    private Streams() {
+    }
+}
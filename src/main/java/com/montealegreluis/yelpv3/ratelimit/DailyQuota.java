@@ -0,0 +1,59 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+import com.montealegreluis.yelpv3.client.RawResponse;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Remaining daily budget, as reported by Yelp on every response
+ * <p>
+ * <ul>
+ * <li><code>RateLimit-Remaining</code> requests left for the day</li>
+ * <li><code>RateLimit-ResetTime</code> when the budget is reset (ISO-8601)</li>
+ * </ul>
+ */
+class DailyQuota {
+    private long remaining = Long.MAX_VALUE;
+    private Instant resetAt = Instant.MIN;
+
+    synchronized boolean isExhaustedAt(Instant now) {
+        if (now.isAfter(resetAt)) remaining = Long.MAX_VALUE;
+        return remaining <= 0;
+    }
+
+    /**
+     * Counts a request before Yelp reports the new remaining budget
+     */
+    synchronized void consume() {
+        if (remaining != Long.MAX_VALUE) remaining--;
+    }
+
+    /**
+     * Gives back a request counted by <code>consume</code> that was never sent
+     */
+    synchronized void release() {
+        if (remaining != Long.MAX_VALUE) remaining++;
+    }
+
+    synchronized Instant resetAt() {
+        return resetAt;
+    }
+
+    synchronized void update(RawResponse response) {
+        String remaining = response.header("RateLimit-Remaining");
+        String resetTime = response.header("RateLimit-ResetTime");
+        if (remaining == null || resetTime == null) return;
+
+        try {
+            this.remaining = Long.parseLong(remaining.trim());
+            this.resetAt = OffsetDateTime.parse(resetTime.trim()).toInstant();
+        } catch (NumberFormatException | DateTimeParseException ignored) {
+            // Keep the previous budget if Yelp sends values in an unexpected format
+        }
+    }
+}
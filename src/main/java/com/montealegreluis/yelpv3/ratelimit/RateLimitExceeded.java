@@ -0,0 +1,32 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+import com.montealegreluis.yelpv3.client.Endpoint;
+
+import java.time.Instant;
+
+/**
+ * Exception thrown before sending a request that would exceed Yelp's limits
+ */
+public class RateLimitExceeded extends RuntimeException {
+    private RateLimitExceeded(String message) {
+        super(message);
+    }
+
+    public static RateLimitExceeded forEndpoint(Endpoint endpoint, long maxWaitMillis) {
+        return new RateLimitExceeded(String.format(
+            "No permit available for endpoint %s within %d ms",
+            endpoint,
+            maxWaitMillis
+        ));
+    }
+
+    public static RateLimitExceeded dailyQuotaUntil(Instant resetAt) {
+        return new RateLimitExceeded(String.format(
+            "Daily quota is exhausted, it will be reset at %s",
+            resetAt
+        ));
+    }
+}
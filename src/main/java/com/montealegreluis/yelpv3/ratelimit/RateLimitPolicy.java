@@ -0,0 +1,81 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+import com.montealegreluis.yelpv3.client.Endpoint;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second allowed for each endpoint, and how long callers can wait for a permit
+ * <p>
+ * By default all the endpoints allow 5 requests per second, with bursts of 5 requests, and
+ * callers fail fast if there's no permit available
+ * <p>
+ * <code>RateLimitPolicy.perSecond(10).withRate(SEARCH, 5, 10).blockingUpTo(500, MILLISECONDS)</code>
+ */
+public class RateLimitPolicy {
+    private final double defaultRate;
+    private final Map<Endpoint, Double> rates;
+    private final Map<Endpoint, Integer> bursts;
+    private final long maxWaitMillis;
+
+    public static RateLimitPolicy defaults() {
+        return perSecond(5);
+    }
+
+    public static RateLimitPolicy perSecond(double permitsPerSecond) {
+        return new RateLimitPolicy(
+            permitsPerSecond,
+            new EnumMap<>(Endpoint.class),
+            new EnumMap<>(Endpoint.class),
+            0
+        );
+    }
+
+    public RateLimitPolicy withRate(Endpoint endpoint, double permitsPerSecond, int burst) {
+        Map<Endpoint, Double> rates = new EnumMap<>(this.rates);
+        Map<Endpoint, Integer> bursts = new EnumMap<>(this.bursts);
+        rates.put(endpoint, permitsPerSecond);
+        bursts.put(endpoint, burst);
+        return new RateLimitPolicy(defaultRate, rates, bursts, maxWaitMillis);
+    }
+
+    /**
+     * Callers will wait for a permit up to the given time, before failing
+     */
+    public RateLimitPolicy blockingUpTo(long duration, TimeUnit unit) {
+        return new RateLimitPolicy(defaultRate, rates, bursts, unit.toMillis(duration));
+    }
+
+    /**
+     * Callers fail right away if there's no permit available
+     */
+    public RateLimitPolicy failingFast() {
+        return new RateLimitPolicy(defaultRate, rates, bursts, 0);
+    }
+
+    public long maxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    TokenBucket bucketFor(Endpoint endpoint) {
+        double rate = rates.getOrDefault(endpoint, defaultRate);
+        return new TokenBucket(rate, bursts.getOrDefault(endpoint, (int) Math.max(1, Math.ceil(rate))));
+    }
+
+    private RateLimitPolicy(
+        double defaultRate,
+        Map<Endpoint, Double> rates,
+        Map<Endpoint, Integer> bursts,
+        long maxWaitMillis
+    ) {
+        this.defaultRate = defaultRate;
+        this.rates = rates;
+        this.bursts = bursts;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.Endpoint;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator that keeps requests within the rate of each endpoint and within the daily quota
+ * <p>
+ * The daily quota is updated from the <code>RateLimit-*</code> headers Yelp sends on every
+ * response. If Yelp replies with <code>429</code> anyway, the endpoint's bucket is drained
+ * <p>
+ * Asynchronous requests that need to wait for a permit are scheduled, no thread is blocked.
+ * Cancelling one of them before it's sent gives its permit back
+ * <p>
+ * <code>new RateLimitingYelpClient(client, RateLimitPolicy.perSecond(5).blockingUpTo(1, SECONDS))</code>
+ */
+public class RateLimitingYelpClient implements YelpClient {
+    private static final ScheduledThreadPoolExecutor scheduler = newScheduler();
+    private final YelpClient client;
+    private final RateLimitPolicy policy;
+    private final Map<Endpoint, TokenBucket> buckets = new EnumMap<>(Endpoint.class);
+    private final DailyQuota quota = new DailyQuota();
+    private final Clock clock;
+
+    public RateLimitingYelpClient(YelpClient client, RateLimitPolicy policy) {
+        this(client, policy, Clock.systemUTC());
+    }
+
+    RateLimitingYelpClient(YelpClient client, RateLimitPolicy policy, Clock clock) {
+        this.client = client;
+        this.policy = policy;
+        this.clock = clock;
+        for (Endpoint endpoint : Endpoint.values()) buckets.put(endpoint, policy.bucketFor(endpoint));
+    }
+
+    @Override
+    public RawResponse send(YelpRequest request) {
+        long wait = reserve(request);
+        try {
+            if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DeadlineExceeded.interrupted(request.uri(), e);
+        }
+        try {
+            return track(client.send(request));
+        } catch (ErrorResponse e) {
+            throw track(request.endpoint(), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        long wait;
+        try {
+            wait = reserve(request);
+        } catch (RateLimitExceeded e) {
+            CompletableFuture<RawResponse> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        if (wait == 0) return sendTracked(request);
+
+        CompletableFuture<RawResponse> delayed = new CompletableFuture<>();
+        ScheduledFuture<?> scheduled = scheduler.schedule(() -> {
+            if (delayed.isDone()) {
+                release(request);
+                return;
+            }
+            sendTracked(request).whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!delayed.complete(response)) response.close();
+                } else delayed.completeExceptionally(error);
+            });
+        }, wait, TimeUnit.NANOSECONDS);
+        delayed.whenComplete((response, error) -> {
+            if (delayed.isCancelled() && scheduled.cancel(false)) release(request);
+        });
+        return delayed;
+    }
+
+    @Override
+    public int warmUp(int connections) {
+        return client.warmUp(connections);
+    }
+
+    private CompletableFuture<RawResponse> sendTracked(YelpRequest request) {
+        return client.sendAsync(request).handle((response, error) -> {
+            if (error == null) return track(response);
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof ErrorResponse) throw track(request.endpoint(), (ErrorResponse) cause);
+            throw error instanceof CompletionException
+                ? (CompletionException) error
+                : new CompletionException(error)
+            ;
+        });
+    }
+
+    /**
+     * Callers never wait for a permit beyond the deadline of their request
+     *
+     * @return Nanoseconds to wait before sending the request
+     */
+    private long reserve(YelpRequest request) {
+        Endpoint endpoint = request.endpoint();
+        if (endpoint != Endpoint.AUTHENTICATION && quota.isExhaustedAt(clock.instant()))
+            throw RateLimitExceeded.dailyQuotaUntil(quota.resetAt());
+
+        long maxWait = TimeUnit.MILLISECONDS.toNanos(policy.maxWaitMillis());
+        if (request.hasDeadline()) maxWait = Math.min(maxWait, request.deadline().remaining(TimeUnit.NANOSECONDS));
+        long wait = buckets.get(endpoint).reserve(maxWait);
+        if (wait < 0) throw RateLimitExceeded.forEndpoint(endpoint, policy.maxWaitMillis());
+
+        if (endpoint != Endpoint.AUTHENTICATION) quota.consume();
+        return wait;
+    }
+
+    /**
+     * Gives back the permit of a request that was cancelled before it was sent
+     */
+    private void release(YelpRequest request) {
+        Endpoint endpoint = request.endpoint();
+        buckets.get(endpoint).release();
+        if (endpoint != Endpoint.AUTHENTICATION) quota.release();
+    }
+
+    private RawResponse track(RawResponse response) {
+        quota.update(response);
+        return response;
+    }
+
+    private ErrorResponse track(Endpoint endpoint, ErrorResponse error) {
+        if (error.isTooManyRequests()) buckets.get(endpoint).drain();
+        return error;
+    }
+
+    private static ScheduledThreadPoolExecutor newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "yelp-rate-limiter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+/**
+ * Permits are added at a constant rate, up to <code>burst</code> permits can be used at once
+ * <p>
+ * Callers that need to wait reserve their permit in advance, so that waiting threads are served
+ * in order and the rate is never exceeded
+ */
+class TokenBucket {
+    private final double burst;
+    private final double permitsPerNano;
+    private double permits;
+    private long lastRefill;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.burst = burst;
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.permits = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * @return Nanoseconds to wait before using the reserved permit, or <code>-1</code> if it
+     * would take longer than <code>maxWaitNanos</code>, in which case nothing is reserved
+     */
+    synchronized long reserve(long maxWaitNanos) {
+        refill();
+        long wait = permits >= 1 ? 0 : (long) Math.ceil((1 - permits) / permitsPerNano);
+        if (wait > maxWaitNanos) return -1;
+
+        permits -= 1;
+        return wait;
+    }
+
+    /**
+     * Returns a reserved permit that was not used
+     */
+    synchronized void release() {
+        refill();
+        permits = Math.min(burst, permits + 1);
+    }
+
+    /**
+     * Used when Yelp reports that the limit was exceeded anyway, no permits are available until
+     * the bucket refills
+     */
+    synchronized void drain() {
+        refill();
+        permits = Math.min(permits, 0);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        permits = Math.min(burst, permits + (now - lastRefill) * permitsPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import java.time.Clock;
+
+/**
+ * Circuit breaker for a single endpoint
+ * <p>
+ * <ul>
+ * <li>Closed: requests go through, consecutive failures are counted</li>
+ * <li>Open: requests are rejected until the open duration elapses</li>
+ * <li>Half open: a single trial request goes through, its outcome closes or re-opens the circuit</li>
+ * </ul>
+ */
+class CircuitBreaker {
+    enum State {CLOSED, OPEN, HALF_OPEN}
+
+    private final CircuitBreakerPolicy policy;
+    private final Clock clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures = 0;
+    private long openedAt;
+
+    CircuitBreaker(CircuitBreakerPolicy policy, Clock clock) {
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    /**
+     * @return Whether a request can be sent, when the circuit is half open only the first
+     * caller gets through
+     */
+    synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN) return false;
+        if (clock.millis() - openedAt < policy.openMillis()) return false;
+
+        state = State.HALF_OPEN;
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= policy.failureThreshold()) {
+            state = State.OPEN;
+            openedAt = clock.millis();
+        }
+    }
+
+    /**
+     * The request was not sent, so its outcome says nothing about the endpoint. If it was the
+     * trial request, the next caller gets to try instead
+     */
+    synchronized void release() {
+        if (state != State.HALF_OPEN) return;
+
+        state = State.OPEN;
+        openedAt = clock.millis() - policy.openMillis();
+    }
+
+    synchronized long retryAt() {
+        return openedAt + policy.openMillis();
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
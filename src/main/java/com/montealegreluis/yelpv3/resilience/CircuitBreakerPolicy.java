@@ -0,0 +1,50 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When an endpoint's circuit opens, and for how long requests to it are rejected
+ * <p>
+ * By default a circuit opens after 5 consecutive failures, and lets a trial request through
+ * after 30 seconds. If the trial succeeds the circuit closes, otherwise it stays open
+ */
+public class CircuitBreakerPolicy {
+    private final int failureThreshold;
+    private final long openMillis;
+
+    public static CircuitBreakerPolicy defaults() {
+        return new CircuitBreakerPolicy(5, TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * Requests are never rejected
+     */
+    public static CircuitBreakerPolicy disabled() {
+        return new CircuitBreakerPolicy(Integer.MAX_VALUE, 0);
+    }
+
+    public CircuitBreakerPolicy withFailureThreshold(int consecutiveFailures) {
+        if (consecutiveFailures < 1) throw new IllegalArgumentException("Threshold should be at least 1");
+        return new CircuitBreakerPolicy(consecutiveFailures, openMillis);
+    }
+
+    public CircuitBreakerPolicy withOpenDuration(long duration, TimeUnit unit) {
+        return new CircuitBreakerPolicy(failureThreshold, unit.toMillis(duration));
+    }
+
+    int failureThreshold() {
+        return failureThreshold;
+    }
+
+    long openMillis() {
+        return openMillis;
+    }
+
+    private CircuitBreakerPolicy(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+}
@@ -0,0 +1,25 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import com.montealegreluis.yelpv3.client.Endpoint;
+
+import java.time.Instant;
+
+/**
+ * Exception thrown instead of sending a request to an endpoint that keeps failing
+ */
+public class CircuitOpen extends RuntimeException {
+    private CircuitOpen(String message) {
+        super(message);
+    }
+
+    public static CircuitOpen forEndpoint(Endpoint endpoint, long retryAtMillis) {
+        return new CircuitOpen(String.format(
+            "Requests to endpoint %s are failing, they will be attempted again after %s",
+            endpoint,
+            Instant.ofEpochMilli(retryAtMillis)
+        ));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.Endpoint;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorator that retries transient failures and stops sending requests to failing endpoints
+ * <p>
+ * Throttled requests, server errors and connection failures are retried according to the
+ * <code>RetryPolicy</code>. Server errors, connection failures and requests that ran out of
+ * time also count towards opening the endpoint's circuit, once it's open requests fail right
+ * away with <code>CircuitOpen</code> instead of waiting on a degraded upstream
+ * <p>
+ * Asynchronous retries are scheduled, no thread is blocked while waiting
+ * <p>
+ * <code>new ResilientYelpClient(client, RetryPolicy.defaults(), CircuitBreakerPolicy.defaults())</code>
+ */
+public class ResilientYelpClient implements YelpClient {
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+        runnable -> {
+            Thread thread = new Thread(runnable, "yelp-retries");
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+    private final YelpClient client;
+    private final RetryPolicy retries;
+    private final Map<Endpoint, CircuitBreaker> breakers = new EnumMap<>(Endpoint.class);
+
+    public ResilientYelpClient(YelpClient client, RetryPolicy retries, CircuitBreakerPolicy breakers) {
+        this(client, retries, breakers, Clock.systemUTC());
+    }
+
+    ResilientYelpClient(YelpClient client, RetryPolicy retries, CircuitBreakerPolicy breakers, Clock clock) {
+        this.client = client;
+        this.retries = retries;
+        for (Endpoint endpoint : Endpoint.values())
+            this.breakers.put(endpoint, new CircuitBreaker(breakers, clock));
+    }
+
+    @Override
+    public RawResponse send(YelpRequest request) {
+        CircuitBreaker breaker = breakers.get(request.endpoint());
+        for (int attempt = 1; ; attempt++) {
+            if (request.hasDeadline() && request.deadline().isExpired())
+                throw DeadlineExceeded.forRequest(request.uri());
+            if (!breaker.tryAcquire()) throw CircuitOpen.forEndpoint(request.endpoint(), breaker.retryAt());
+            try {
+                RawResponse response = client.send(request);
+                breaker.onSuccess();
+                return response;
+            } catch (RuntimeException e) {
+                record(breaker, e);
+                long delay = delayAfter(request, attempt, e);
+                if (delay < 0) throw e;
+                sleep(request, delay);
+            }
+        }
+    }
+
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        attempt(request, 1, response);
+        return response;
+    }
+
+    @Override
+    public int warmUp(int connections) {
+        return client.warmUp(connections);
+    }
+
+    private void attempt(YelpRequest request, int attempt, CompletableFuture<RawResponse> response) {
+        if (response.isDone()) return;
+
+        if (request.hasDeadline() && request.deadline().isExpired()) {
+            response.completeExceptionally(DeadlineExceeded.forRequest(request.uri()));
+            return;
+        }
+        CircuitBreaker breaker = breakers.get(request.endpoint());
+        if (!breaker.tryAcquire()) {
+            response.completeExceptionally(CircuitOpen.forEndpoint(request.endpoint(), breaker.retryAt()));
+            return;
+        }
+        CompletableFuture<RawResponse> exchange;
+        try {
+            exchange = client.sendAsync(request);
+        } catch (RuntimeException e) {
+            record(breaker, e);
+            response.completeExceptionally(e);
+            return;
+        }
+        response.whenComplete((ignored, error) -> {
+            if (response.isCancelled()) exchange.cancel(true);
+        });
+        exchange.whenComplete((rawResponse, error) -> {
+            if (error == null) {
+                breaker.onSuccess();
+                if (!response.complete(rawResponse)) rawResponse.close();
+                return;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error
+            ;
+            record(breaker, cause);
+            long delay = delayAfter(request, attempt, cause);
+            if (delay < 0) response.completeExceptionally(cause);
+            else scheduler.schedule(() -> attempt(request, attempt + 1, response), delay, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    /**
+     * Requests are not retried if the deadline would expire before the next attempt
+     */
+    private long delayAfter(YelpRequest request, int attempt, Throwable failure) {
+        if (!retries.isRetryable(request, failure)) return -1;
+
+        long delay = retries.delayAfter(attempt, failure);
+        if (request.hasDeadline() && delay >= request.deadline().remaining(TimeUnit.MILLISECONDS)) return -1;
+        return delay;
+    }
+
+    /**
+     * Only server errors, connection failures and requests that used their whole deadline are a
+     * sign of a degraded endpoint, any other error response means Yelp is up. Requests are only
+     * sent with time left, a caller that stops waiting says nothing about the endpoint
+     */
+    private void record(CircuitBreaker breaker, Throwable failure) {
+        if (failure instanceof TransportFailure) breaker.onFailure();
+        else if (failure instanceof DeadlineExceeded && !((DeadlineExceeded) failure).isInterrupted())
+            breaker.onFailure();
+        else if (!(failure instanceof ErrorResponse)) breaker.release();
+        else if (((ErrorResponse) failure).statusCode() >= 500) breaker.onFailure();
+        else breaker.onSuccess();
+    }
+
+    private void sleep(YelpRequest request, long delay) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DeadlineExceeded.interrupted(request.uri(), e);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How many times a failed request is sent again, and how long to wait between attempts
+ * <p>
+ * Delays grow exponentially from <code>baseDelay</code> up to <code>maxDelay</code>, a random
+ * delay between zero and that value is used (full jitter), so that clients failing at the same
+ * time don't retry at the same time. If Yelp sends a <code>Retry-After</code> header it is used
+ * instead, unless it's longer than <code>maxDelay</code>, in which case the failure is reported
+ * <p>
+ * By default requests are sent up to 3 times, with delays starting at 100 ms, up to 5 seconds
+ */
+public class RetryPolicy {
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    public static RetryPolicy defaults() {
+        return new RetryPolicy(3, 100, 5000);
+    }
+
+    public static RetryPolicy never() {
+        return new RetryPolicy(1, 0, 0);
+    }
+
+    public RetryPolicy withMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("At least one attempt is required");
+        return new RetryPolicy(maxAttempts, baseDelayMillis, maxDelayMillis);
+    }
+
+    public RetryPolicy withBackoff(long baseDelay, long maxDelay, TimeUnit unit) {
+        return new RetryPolicy(maxAttempts, unit.toMillis(baseDelay), unit.toMillis(maxDelay));
+    }
+
+    public int maxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Throttled requests (<code>429</code>) were never processed, so they're retried even if
+     * they're not idempotent. Any other retryable failure is only retried for GET requests
+     */
+    boolean isRetryable(YelpRequest request, Throwable failure) {
+        if (failure instanceof ErrorResponse) {
+            ErrorResponse error = (ErrorResponse) failure;
+            return error.isTooManyRequests() || error.isRetryable() && request.isIdempotent();
+        }
+        return failure instanceof TransportFailure
+            && ((TransportFailure) failure).isRetryable()
+            && request.isIdempotent()
+        ;
+    }
+
+    /**
+     * @param attempt Number of attempts made so far, starting at 1
+     * @return Milliseconds to wait before the next attempt, or <code>-1</code> if there are no
+     * attempts left or Yelp asked to wait longer than <code>maxDelay</code>
+     */
+    long delayAfter(int attempt, Throwable failure) {
+        if (attempt >= maxAttempts) return -1;
+
+        if (failure instanceof ErrorResponse && ((ErrorResponse) failure).hasRetryAfter()) {
+            long retryAfter = ((ErrorResponse) failure).retryAfterMillis();
+            return retryAfter <= maxDelayMillis ? retryAfter : -1;
+        }
+
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+}
@@ -3,17 +3,21 @@
  */
 package com.montealegreluis.yelpv3.reviews;
 
-import java.net.URL;
-import java.util.Date;
+import com.montealegreluis.yelpv3.businesses.Link;
 
+import java.time.LocalDateTime;
+
+/**
+ * Reviews are created at the local time of the business, they have no time zone
+ */
 public class Review {
     public final int rating;
     public final User user;
     public final String text;
-    public final Date createdAt;
-    public final URL url;
+    public final LocalDateTime createdAt;
+    public final Link url;
 
-    public Review(int rating, User user, String text, Date createdAt, URL url) {
+    public Review(int rating, User user, String text, LocalDateTime createdAt, Link url) {
         this.rating = rating;
         this.user = user;
         this.text = text;
@@ -3,13 +3,13 @@
  */
 package com.montealegreluis.yelpv3.reviews;
 
-import java.net.URL;
+import com.montealegreluis.yelpv3.businesses.Link;
 
 public class User {
-    public final URL image;
+    public final Link image;
     public final String name;
 
-    public User(URL image, String name) {
+    public User(Link image, String name) {
         this.image = image;
         this.name = name;
     }
@@ -7,9 +7,12 @@ import com.montealegreluis.yelpv3.businesses.Coordinates;
 import com.montealegreluis.yelpv3.businesses.PricingLevel;
 import org.apache.http.client.utils.URIBuilder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
 
 public class SearchCriteria {
     private final int defaultPageSize = 20;
@@ -144,14 +147,39 @@ public class SearchCriteria {
         parameters.put("locale", locale.toString());
     }
 
+    /**
+     * Parameters are sorted by name, so that identical criteria always produce the same URI
+     */
     public void addQueryParametersTo(URIBuilder builder) {
-        parameters.forEach(builder::setParameter);
+        new TreeMap<>(parameters).forEach(builder::setParameter);
     }
 
     public Pagination pagination(int total) {
         return Pagination.fromSearch(this, total);
     }
 
+    /**
+     * Criteria for every page after this one, up to <code>total</code> businesses or the 1,000
+     * businesses Yelp can page through, whichever is less
+     * <p>
+     * Pages have this criteria's limit, the last one is shortened to stay within the 1,000 cap.
+     * A limit of zero cannot be paged through
+     */
+    public List<SearchCriteria> nextPages(int total) {
+        if (limit() < 1)
+            throw new IllegalStateException(String.format("Cannot page through results %d at a time", limit()));
+
+        List<SearchCriteria> pages = new ArrayList<>();
+        int last = Math.min(total, Offset.MAX_OFFSET);
+        for (int offset = offset() + limit(); offset < last; offset += limit()) {
+            SearchCriteria page = new SearchCriteria(parameters);
+            page.offset(Offset.of(offset));
+            page.limit(Limit.of(Math.min(limit(), last - offset)));
+            pages.add(page);
+        }
+        return pages;
+    }
+
     public QueryString toQueryString() {
         return QueryString.build(parameters, limit());
     }
@@ -185,6 +213,10 @@ public class SearchCriteria {
         parameters.put("location", location);
     }
 
+    private SearchCriteria(Map<String, String> parameters) {
+        this.parameters.putAll(parameters);
+    }
+
     @Override
     public String toString() {
         return parameters.toString();
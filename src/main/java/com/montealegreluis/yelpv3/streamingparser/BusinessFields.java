@@ -0,0 +1,166 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.*;
+import com.montealegreluis.yelpv3.businesses.distance.Distance;
+import com.montealegreluis.yelpv3.parser.Flyweights;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Members can appear in any order, values are kept until the whole object has been read
+ * <p>
+ * Lenient parsers leave the optional members they can't read empty, a failure in any other
+ * member discards the whole business
+ */
+class BusinessFields {
+    private static final Set<String> OPTIONAL = new HashSet<>(Arrays.asList(
+        "price", "distance", "image_url", "is_claimed", "photos", "hours"
+    ));
+
+    Double rating;
+    PricingLevel pricingLevel = PricingLevel.NONE;
+    String phone;
+    String id;
+    Boolean isClosed;
+    Categories categories;
+    Integer reviewCount;
+    String name;
+    String url;
+    Coordinates coordinates;
+    String image;
+    Location location;
+    Distance distance;
+    List<Transaction> transactions;
+    boolean isClaimed;
+    List<Link> photos;
+    Schedule schedule;
+
+    static BusinessFields from(JsonReader json, ParsingErrors errors) {
+        BusinessFields business = new BusinessFields();
+        json.beginObject();
+        while (json.hasNext()) {
+            String member = json.nextName();
+            if (errors == null) business.read(json, member);
+            else business.readLeniently(json, member, errors);
+        }
+        json.endObject();
+        return business;
+    }
+
+    private void readLeniently(JsonReader json, String member, ParsingErrors errors) {
+        int depth = json.depth();
+        long offset = json.offset();
+        try {
+            read(json, member);
+        } catch (UnknownPricingLevel e) {
+            recover(json, member, json.failure(e).inField(member), depth, offset, errors);
+        } catch (ParsingFailure e) {
+            recover(json, member, e.inField(member), depth, offset, errors);
+        }
+    }
+
+    private static void recover(
+        JsonReader json,
+        String member,
+        ParsingFailure failure,
+        int depth,
+        long offset,
+        ParsingErrors errors
+    ) {
+        if (failure.isMalformed() || !OPTIONAL.contains(member)) throw failure;
+        json.skipRest(depth, offset);
+        errors.recordEmpty(member);
+    }
+
+    private void read(JsonReader json, String member) {
+        switch (member) {
+            case "rating":
+                rating = json.nextDouble();
+                break;
+            case "price":
+                String price = json.nextStringOrNull();
+                if (price != null) pricingLevel = PricingLevel.fromSymbol(price);
+                break;
+            case "phone":
+                phone = json.nextString();
+                break;
+            case "id":
+                id = json.nextString();
+                break;
+            case "is_closed":
+                isClosed = json.nextBoolean();
+                break;
+            case "categories":
+                categories = categories(json);
+                break;
+            case "review_count":
+                reviewCount = json.nextInt();
+                break;
+            case "name":
+                name = json.nextString();
+                break;
+            case "url":
+                url = json.nextString();
+                break;
+            case "coordinates":
+                coordinates = CoordinatesParser.from(json);
+                break;
+            case "image_url":
+                image = json.nextString();
+                break;
+            case "location":
+                location = LocationParser.from(json);
+                break;
+            case "distance":
+                if (!json.nextIsNull()) distance = Distance.inMeters(json.nextDouble());
+                break;
+            case "transactions":
+                transactions = transactions(json);
+                break;
+            case "is_claimed":
+                isClaimed = !json.nextIsNull() && json.nextBoolean();
+                break;
+            case "photos":
+                if (!json.nextIsNull()) photos = photos(json);
+                break;
+            case "hours":
+                if (!json.nextIsNull()) schedule = ScheduleParser.from(json);
+                break;
+            default:
+                json.skipValue();
+        }
+    }
+
+    private static Categories categories(JsonReader json) {
+        List<Category> categories = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) categories.add(CategoryParser.from(json));
+        json.endArray();
+        return new Categories(categories);
+    }
+
+    private static List<Transaction> transactions(JsonReader json) {
+        List<Transaction> transactions = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) transactions.add(Flyweights.transaction(json.nextPooledString()));
+        json.endArray();
+        return transactions;
+    }
+
+    private static List<Link> photos(JsonReader json) {
+        List<Link> photos = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) photos.add(BusinessParser.link(json, json.nextString()));
+        json.endArray();
+        return photos;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.*;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parsers without <code>errors</code> are strict, they fail on the first value they can't read
+ */
+class BusinessParser {
+    static BusinessDetails detailsFrom(JsonReader json, ParsingErrors errors) {
+        BusinessFields business = BusinessFields.from(json, errors);
+        return new BusinessDetails(
+            required(json, business.rating, "rating"),
+            business.pricingLevel,
+            required(json, business.phone, "phone"),
+            required(json, business.id, "id"),
+            required(json, business.isClosed, "is_closed"),
+            required(json, business.categories, "categories"),
+            required(json, business.reviewCount, "review_count"),
+            required(json, business.name, "name"),
+            url(json, business.url),
+            required(json, business.coordinates, "coordinates"),
+            errors == null ? link(json, required(json, business.image, "image_url")) : image(business.image, errors),
+            required(json, business.location, "location"),
+            business.distance,
+            required(json, business.transactions, "transactions"),
+            business.isClaimed,
+            business.photos,
+            business.schedule
+        );
+    }
+
+    static Business businessFrom(JsonReader json, ParsingErrors errors) {
+        BusinessFields business = BusinessFields.from(json, errors);
+        return new Business(
+            required(json, business.rating, "rating"),
+            business.pricingLevel,
+            required(json, business.phone, "phone"),
+            required(json, business.id, "id"),
+            required(json, business.isClosed, "is_closed"),
+            required(json, business.categories, "categories"),
+            required(json, business.reviewCount, "review_count"),
+            required(json, business.name, "name"),
+            url(json, business.url),
+            required(json, business.coordinates, "coordinates"),
+            errors == null ? optionalLink(json, required(json, business.image, "image_url")) : image(business.image, errors),
+            required(json, business.location, "location"),
+            business.distance,
+            required(json, business.transactions, "transactions")
+        );
+    }
+
+    static <T> T required(JsonReader json, T value, String name) {
+        if (value == null) throw ParsingFailure.missing(json.offset(), name);
+        return value;
+    }
+
+    private static Link url(JsonReader json, String url) {
+        try {
+            return Link.to(required(json, url, "url"));
+        } catch (InvalidLink e) {
+            throw json.failure(e).inField("url");
+        }
+    }
+
+    private static Link optionalLink(JsonReader json, String link) {
+        return !link.trim().isEmpty() ? link(json, link) : null;
+    }
+
+    /**
+     * Lenient parsers leave images that are missing or invalid empty, like any other optional
+     * member
+     */
+    private static Link image(String image, ParsingErrors errors) {
+        if (image == null || image.trim().isEmpty()) return null;
+        if (Link.isValid(image)) return Link.to(image);
+        errors.recordEmpty("image_url");
+        return null;
+    }
+
+    static Link link(JsonReader json, String link) {
+        try {
+            return Link.to(link);
+        } catch (InvalidLink e) {
+            throw json.failure(e);
+        }
+    }
+
+    static List<String> pooledStrings(JsonReader json) {
+        List<String> strings = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) strings.add(json.nextPooledString());
+        json.endArray();
+        return strings;
+    }
+}
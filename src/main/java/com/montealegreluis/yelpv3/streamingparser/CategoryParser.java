@@ -0,0 +1,32 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Category;
+import com.montealegreluis.yelpv3.parser.Flyweights;
+
+class CategoryParser {
+    static Category from(JsonReader json) {
+        String alias = null;
+        String title = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "alias":
+                    alias = json.nextPooledString();
+                    break;
+                case "title":
+                    title = json.nextPooledString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return Flyweights.category(
+            BusinessParser.required(json, alias, "alias"),
+            BusinessParser.required(json, title, "title")
+        );
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Coordinates;
+
+class CoordinatesParser {
+    static Coordinates from(JsonReader json) {
+        double latitude = 0;
+        double longitude = 0;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "latitude":
+                    if (!json.nextIsNull()) latitude = json.nextDouble();
+                    break;
+                case "longitude":
+                    if (!json.nextIsNull()) longitude = json.nextDouble();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Coordinates(latitude, longitude);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Hours;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+class HoursParser {
+    static Hours from(JsonReader json) {
+        Integer day = null;
+        String start = null;
+        String end = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "day":
+                    day = json.nextInt();
+                    break;
+                case "start":
+                    start = json.nextString();
+                    break;
+                case "end":
+                    end = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        try {
+            return new Hours(
+                DayOfWeek.of(BusinessParser.required(json, day, "day") + 1),
+                timeFrom(BusinessParser.required(json, start, "start")),
+                timeFrom(BusinessParser.required(json, end, "end"))
+            );
+        } catch (DateTimeException e) {
+            throw json.failure(e);
+        }
+    }
+
+    /**
+     * Times are formatted as <code>HHmm</code>
+     */
+    private static LocalTime timeFrom(String text) {
+        if (text.length() != 4) throw new DateTimeException(String.format("Invalid time %s", text));
+        return LocalTime.of(digits(text, 0), digits(text, 2));
+    }
+
+    private static int digits(String text, int start) {
+        int tens = Character.digit(text.charAt(start), 10);
+        int units = Character.digit(text.charAt(start + 1), 10);
+        if (tens < 0 || units < 0) throw new DateTimeException(String.format("Invalid time %s", text));
+        return tens * 10 + units;
+    }
+}
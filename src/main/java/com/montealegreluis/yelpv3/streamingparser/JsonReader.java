@@ -0,0 +1,426 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.parser.Flyweights;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull tokenizer, values are read in the order they appear in the document, and nothing but the
+ * values asked for is allocated
+ * <p>
+ * It trusts the document's structure, commas between values are consumed but not enforced
+ * <p>
+ * Failures caused by a value of the wrong type leave the reader where it can recover, by skipping
+ * what's left of the value. Syntax errors are reported as malformed, the rest of the document
+ * can't be read
+ */
+class JsonReader {
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder number = new StringBuilder();
+    private int position;
+    private int limit;
+    private long consumed;
+    private int depth;
+    private boolean inString;
+
+    static JsonReader of(String json) {
+        return new JsonReader(null, json.toCharArray(), json.length());
+    }
+
+    static JsonReader of(Reader reader) {
+        return new JsonReader(reader, new char[8192], 0);
+    }
+
+    private JsonReader(Reader reader, char[] buffer, int limit) {
+        this.reader = reader;
+        this.buffer = buffer;
+        this.limit = limit;
+    }
+
+    void beginObject() {
+        startValue('{');
+        depth++;
+    }
+
+    void endObject() {
+        expect('}');
+        depth--;
+    }
+
+    void beginArray() {
+        startValue('[');
+        depth++;
+    }
+
+    void endArray() {
+        expect(']');
+        depth--;
+    }
+
+    /**
+     * @return Number of objects and arrays that are open
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * @return Number of characters read so far
+     */
+    long offset() {
+        return consumed + position;
+    }
+
+    /**
+     * Moves past a value that couldn't be read, so that reading can continue with the next one
+     *
+     * @param depth Depth before the value started
+     * @param offset Offset before the value started
+     */
+    void skipRest(int depth, long offset) {
+        if (this.depth > depth || inString) skipTo(depth);
+        else if (offset() == offset) skipValue();
+    }
+
+    /**
+     * @return <code>false</code> if the current object or array has no more values
+     */
+    boolean hasNext() {
+        int next = peek();
+        if (next == ',') {
+            position++;
+            return true;
+        }
+        return next != '}' && next != ']' && next != -1;
+    }
+
+    /**
+     * Names are pooled, the same few names are repeated in every business
+     */
+    String nextName() {
+        if (peek() != '"') throw malformed("expected a name");
+        String name = nextPooledString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * @return <code>true</code> if the next value was <code>null</code>, it's consumed
+     */
+    boolean nextIsNull() {
+        if (peek() != 'n') return false;
+        literal("null");
+        return true;
+    }
+
+    String nextString() {
+        return nextString(false);
+    }
+
+    /**
+     * Values repeated across businesses, like cities or categories, are shared instead of being
+     * allocated again
+     */
+    String nextPooledString() {
+        return nextString(true);
+    }
+
+    private String nextString(boolean pooled) {
+        startValue('"');
+        inString = true;
+        StringBuilder escaped = null;
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                if (escaped == null) escaped = new StringBuilder();
+                escaped.append(buffer, start, position - start);
+                if (!fill()) throw malformed("unterminated string");
+                start = position;
+            }
+            char next = buffer[position++];
+            if (next == '"') {
+                inString = false;
+                if (escaped == null) return pooled
+                    ? Flyweights.string(buffer, start, position - 1 - start)
+                    : new String(buffer, start, position - 1 - start)
+                ;
+                String value = escaped.append(buffer, start, position - 1 - start).toString();
+                return pooled ? Flyweights.string(value) : value;
+            }
+            if (next == '\\') {
+                if (escaped == null) escaped = new StringBuilder();
+                escaped.append(buffer, start, position - 1 - start).append(unescape());
+                start = position;
+            }
+        }
+    }
+
+    String nextStringOrNull() {
+        return nextIsNull() ? null : nextString();
+    }
+
+    String nextPooledStringOrNull() {
+        return nextIsNull() ? null : nextPooledString();
+    }
+
+    /**
+     * Numbers sent as strings are accepted too, like the DOM based parser does
+     */
+    double nextDouble() {
+        if (peek() == '"') return toDouble(nextString());
+        number.setLength(0);
+        boolean integral = readNumber();
+        if (integral && number.length() < 18) return toLong(number);
+        return toDouble(number.toString());
+    }
+
+    int nextInt() {
+        return (int) nextDouble();
+    }
+
+    long nextLong() {
+        return (long) nextDouble();
+    }
+
+    boolean nextBoolean() {
+        int next = peek();
+        if (next == 't') {
+            literal("true");
+            return true;
+        }
+        if (next == 'f') {
+            literal("false");
+            return false;
+        }
+        if (next == '"') {
+            String value = nextString();
+            if ("true".equalsIgnoreCase(value)) return true;
+            if ("false".equalsIgnoreCase(value)) return false;
+        }
+        throw failure("expected a boolean");
+    }
+
+    void skipValue() {
+        int next = peek();
+        switch (next) {
+            case '{':
+                beginObject();
+                while (hasNext()) {
+                    skipString();
+                    expect(':');
+                    skipValue();
+                }
+                endObject();
+                break;
+            case '[':
+                beginArray();
+                while (hasNext()) skipValue();
+                endArray();
+                break;
+            case '"':
+                skipString();
+                break;
+            case 't':
+                literal("true");
+                break;
+            case 'f':
+                literal("false");
+                break;
+            case 'n':
+                literal("null");
+                break;
+            default:
+                if (next != '-' && (next < '0' || next > '9')) throw malformed("expected a value");
+                number.setLength(0);
+                readNumber();
+        }
+    }
+
+    ParsingFailure failure(String reason) {
+        return ParsingFailure.at(consumed + position, reason);
+    }
+
+    ParsingFailure failure(Exception exception) {
+        return ParsingFailure.at(consumed + position, exception);
+    }
+
+    private ParsingFailure malformed(String reason) {
+        return ParsingFailure.malformedAt(consumed + position, reason);
+    }
+
+    private void skipString() {
+        startValue('"');
+        inString = true;
+        while (true) {
+            char next = read();
+            if (next == '"') break;
+            if (next == '\\') read();
+        }
+        inString = false;
+    }
+
+    /**
+     * Scans characters, without decoding them, until the open objects and arrays are back to
+     * <code>depth</code>
+     */
+    private void skipTo(int depth) {
+        while (this.depth > depth || inString) {
+            char next = read();
+            if (inString) {
+                if (next == '"') inString = false;
+                else if (next == '\\') read();
+            }
+            else if (next == '"') inString = true;
+            else if (next == '{' || next == '[') this.depth++;
+            else if (next == '}' || next == ']') this.depth--;
+        }
+    }
+
+    /**
+     * Appends the number's characters to <code>number</code>
+     *
+     * @return <code>false</code> if the number has a fraction or an exponent
+     */
+    private boolean readNumber() {
+        boolean integral = true;
+        while (position < limit || fill()) {
+            char next = buffer[position];
+            if (next == '.' || next == 'e' || next == 'E' || next == '+') integral = false;
+            else if ((next < '0' || next > '9') && next != '-') break;
+            number.append(next);
+            position++;
+        }
+        if (number.length() == 0) throw failure("expected a value");
+        if (!isNumber(number)) throw malformed(String.format("invalid number %s", number));
+        return integral;
+    }
+
+    /**
+     * An optional minus sign, at least one digit, then an optional fraction and an optional
+     * exponent, each of them with at least one digit
+     */
+    private static boolean isNumber(CharSequence value) {
+        int i = value.charAt(0) == '-' ? 1 : 0;
+        int start = i;
+        i = skipDigits(value, i);
+        if (i == start) return false;
+        if (i < value.length() && value.charAt(i) == '.') {
+            start = ++i;
+            i = skipDigits(value, i);
+            if (i == start) return false;
+        }
+        if (i < value.length() && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            if (i < value.length() && (value.charAt(i) == '+' || value.charAt(i) == '-')) i++;
+            start = i;
+            i = skipDigits(value, i);
+            if (i == start) return false;
+        }
+        return i == value.length();
+    }
+
+    private static int skipDigits(CharSequence value, int i) {
+        while (i < value.length() && value.charAt(i) >= '0' && value.charAt(i) <= '9') i++;
+        return i;
+    }
+
+    /**
+     * Only called with integral numbers already validated by <code>readNumber</code>
+     */
+    private long toLong(CharSequence digits) {
+        boolean negative = digits.charAt(0) == '-';
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < digits.length(); i++) value = value * 10 + (digits.charAt(i) - '0');
+        return negative ? -value : value;
+    }
+
+    private double toDouble(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw failure(e);
+        }
+    }
+
+    private char unescape() {
+        char escaped = read();
+        switch (escaped) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) throw malformed("invalid unicode escape");
+                    code = (code << 4) + digit;
+                }
+                return (char) code;
+            default:
+                return escaped;
+        }
+    }
+
+    private void literal(String literal) {
+        for (int i = 0; i < literal.length(); i++)
+            if (read() != literal.charAt(i)) throw malformed(String.format("expected %s", literal));
+    }
+
+    /**
+     * Nothing is consumed if the value is of another type
+     */
+    private void startValue(char expected) {
+        if (peek() != expected) throw failure(String.format("expected '%s'", expected));
+        position++;
+    }
+
+    private void expect(char expected) {
+        if (peek() != expected) throw malformed(String.format("expected '%s'", expected));
+        position++;
+    }
+
+    /**
+     * Skips whitespace
+     *
+     * @return Next character without consuming it, <code>-1</code> at the end of the document
+     */
+    private int peek() {
+        while (position < limit || fill()) {
+            char next = buffer[position];
+            if (next != ' ' && next != '\n' && next != '\r' && next != '\t') return next;
+            position++;
+        }
+        return -1;
+    }
+
+    private char read() {
+        if (position == limit && !fill()) throw malformed("unexpected end of document");
+        return buffer[position++];
+    }
+
+    private boolean fill() {
+        if (reader == null) return false;
+        consumed += limit;
+        position = 0;
+        try {
+            limit = Math.max(reader.read(buffer, 0, buffer.length), 0);
+        } catch (IOException e) {
+            limit = 0;
+            throw ParsingFailure.malformedAt(consumed, e);
+        }
+        return limit > 0;
+    }
+}
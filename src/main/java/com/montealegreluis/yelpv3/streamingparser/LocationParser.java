@@ -0,0 +1,68 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Location;
+
+import java.util.List;
+
+class LocationParser {
+    static Location from(JsonReader json) {
+        String address1 = null;
+        String address2 = null;
+        String address3 = null;
+        String city = null;
+        String state = null;
+        String country = null;
+        String zipCode = null;
+        String crossStreets = "";
+        List<String> displayAddress = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "address1":
+                    address1 = json.nextStringOrNull();
+                    break;
+                case "address2":
+                    address2 = json.nextPooledStringOrNull();
+                    break;
+                case "address3":
+                    address3 = json.nextPooledStringOrNull();
+                    break;
+                case "city":
+                    city = json.nextPooledString();
+                    break;
+                case "state":
+                    state = json.nextPooledString();
+                    break;
+                case "country":
+                    country = json.nextPooledString();
+                    break;
+                case "zip_code":
+                    zipCode = json.nextPooledString();
+                    break;
+                case "cross_streets":
+                    if (!json.nextIsNull()) crossStreets = json.nextPooledString();
+                    break;
+                case "display_address":
+                    if (!json.nextIsNull()) displayAddress = BusinessParser.pooledStrings(json);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Location(
+            address1,
+            address2,
+            address3,
+            BusinessParser.required(json, city, "city"),
+            BusinessParser.required(json, state, "state"),
+            BusinessParser.required(json, country, "country"),
+            BusinessParser.required(json, zipCode, "zip_code"),
+            crossStreets,
+            displayAddress
+        );
+    }
+}
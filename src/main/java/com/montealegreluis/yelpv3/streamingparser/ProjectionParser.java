@@ -0,0 +1,114 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.BusinessField;
+import com.montealegreluis.yelpv3.businesses.BusinessProjection;
+import com.montealegreluis.yelpv3.businesses.Coordinates;
+import com.montealegreluis.yelpv3.businesses.PricingLevel;
+import com.montealegreluis.yelpv3.businesses.distance.Distance;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Only the members of the requested fields are decoded, every other value in a business is
+ * skipped without allocating it
+ * <p>
+ * As with whole businesses, a requested field fails if its member is missing, unless it's optional
+ */
+class ProjectionParser {
+    private static final Map<String, BusinessField> MEMBERS = new HashMap<>();
+    private static final Set<BusinessField> OPTIONAL = EnumSet.of(BusinessField.PRICING_LEVEL, BusinessField.DISTANCE);
+
+    static {
+        MEMBERS.put("id", BusinessField.ID);
+        MEMBERS.put("name", BusinessField.NAME);
+        MEMBERS.put("rating", BusinessField.RATING);
+        MEMBERS.put("coordinates", BusinessField.COORDINATES);
+        MEMBERS.put("review_count", BusinessField.REVIEW_COUNT);
+        MEMBERS.put("price", BusinessField.PRICING_LEVEL);
+        MEMBERS.put("distance", BusinessField.DISTANCE);
+    }
+
+    static List<BusinessProjection> parseFrom(JsonReader json, Set<BusinessField> fields) {
+        Set<BusinessField> projected = BusinessProjection.fieldsOf(fields);
+        List<BusinessProjection> businesses = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            if ("businesses".equals(json.nextName())) businesses = parseBusinesses(json, projected);
+            else json.skipValue();
+        }
+        json.endObject();
+        return BusinessParser.required(json, businesses, "businesses");
+    }
+
+    private static List<BusinessProjection> parseBusinesses(JsonReader json, Set<BusinessField> fields) {
+        List<BusinessProjection> businesses = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) businesses.add(project(json, fields));
+        json.endArray();
+        return businesses;
+    }
+
+    private static BusinessProjection project(JsonReader json, Set<BusinessField> fields) {
+        String id = null;
+        String name = null;
+        double rating = 0;
+        Coordinates coordinates = null;
+        int reviewCount = 0;
+        PricingLevel pricingLevel = fields.contains(BusinessField.PRICING_LEVEL) ? PricingLevel.NONE : null;
+        Distance distance = null;
+        int found = 0;
+        json.beginObject();
+        while (json.hasNext()) {
+            BusinessField field = MEMBERS.get(json.nextName());
+            if (field == null || !fields.contains(field)) {
+                json.skipValue();
+                continue;
+            }
+            found |= 1 << field.ordinal();
+            switch (field) {
+                case ID:
+                    id = json.nextString();
+                    break;
+                case NAME:
+                    name = json.nextString();
+                    break;
+                case RATING:
+                    rating = json.nextDouble();
+                    break;
+                case COORDINATES:
+                    coordinates = CoordinatesParser.from(json);
+                    break;
+                case REVIEW_COUNT:
+                    reviewCount = json.nextInt();
+                    break;
+                case PRICING_LEVEL:
+                    String price = json.nextStringOrNull();
+                    if (price != null) pricingLevel = PricingLevel.fromSymbol(price);
+                    break;
+                case DISTANCE:
+                    if (!json.nextIsNull()) distance = Distance.inMeters(json.nextDouble());
+                    break;
+            }
+        }
+        json.endObject();
+        requireAll(json, fields, found);
+        return new BusinessProjection(fields, id, name, rating, coordinates, reviewCount, pricingLevel, distance);
+    }
+
+    private static void requireAll(JsonReader json, Set<BusinessField> fields, int found) {
+        for (Map.Entry<String, BusinessField> member : MEMBERS.entrySet()) {
+            BusinessField field = member.getValue();
+            if (fields.contains(field) && !OPTIONAL.contains(field) && (found & 1 << field.ordinal()) == 0)
+                throw ParsingFailure.missing(json.offset(), member.getKey());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+import com.montealegreluis.yelpv3.parser.ReviewTimes;
+import com.montealegreluis.yelpv3.reviews.Review;
+import com.montealegreluis.yelpv3.reviews.User;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.montealegreluis.yelpv3.streamingparser.BusinessParser.required;
+import static com.montealegreluis.yelpv3.streamingparser.BusinessParser.link;
+
+/**
+ * Each review is pushed to the consumer as soon as its object ends, nothing but the review itself
+ * is kept
+ */
+class ReviewsParser {
+    static List<Review> parseFrom(JsonReader json) {
+        List<Review> reviews = new ArrayList<>();
+        parseFrom(json, reviews::add);
+        return reviews;
+    }
+
+    static void parseFrom(JsonReader json, Consumer<? super Review> consumer) {
+        boolean hasReviews = false;
+        json.beginObject();
+        while (json.hasNext()) {
+            if ("reviews".equals(json.nextName())) {
+                parseReviews(json, consumer);
+                hasReviews = true;
+            }
+            else json.skipValue();
+        }
+        json.endObject();
+        if (!hasReviews) throw ParsingFailure.missing(json.offset(), "reviews");
+    }
+
+    private static void parseReviews(JsonReader json, Consumer<? super Review> consumer) {
+        json.beginArray();
+        while (json.hasNext()) consumer.accept(parseReview(json));
+        json.endArray();
+    }
+
+    private static Review parseReview(JsonReader json) {
+        Integer rating = null;
+        User user = null;
+        String text = null;
+        String createdAt = null;
+        String url = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "rating":
+                    rating = json.nextInt();
+                    break;
+                case "user":
+                    user = parseUser(json);
+                    break;
+                case "text":
+                    text = json.nextString();
+                    break;
+                case "time_created":
+                    createdAt = json.nextString();
+                    break;
+                case "url":
+                    url = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Review(
+            required(json, rating, "rating"),
+            required(json, user, "user"),
+            required(json, text, "text"),
+            timeFrom(json, required(json, createdAt, "time_created")),
+            link(json, required(json, url, "url"))
+        );
+    }
+
+    private static User parseUser(JsonReader json) {
+        String image = null;
+        String name = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "image_url":
+                    image = json.nextStringOrNull();
+                    break;
+                case "name":
+                    name = json.nextString();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new User(link(json, required(json, image, "image_url")), required(json, name, "name"));
+    }
+
+    private static LocalDateTime timeFrom(JsonReader json, String time) {
+        try {
+            return ReviewTimes.parse(time);
+        } catch (DateTimeException e) {
+            throw json.failure(e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Hours;
+import com.montealegreluis.yelpv3.businesses.Schedule;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Only the first element of <code>hours</code> is used, it contains the regular schedule
+ */
+class ScheduleParser {
+    static Schedule from(JsonReader json) {
+        Schedule schedule = null;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (schedule == null) schedule = weekSchedule(json);
+            else json.skipValue();
+        }
+        json.endArray();
+        return BusinessParser.required(json, schedule, "hours");
+    }
+
+    private static Schedule weekSchedule(JsonReader json) {
+        Boolean isOpenNow = null;
+        Map<DayOfWeek, List<Hours>> hours = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "is_open_now":
+                    isOpenNow = json.nextBoolean();
+                    break;
+                case "open":
+                    hours = hours(json);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new Schedule(
+            BusinessParser.required(json, isOpenNow, "is_open_now"),
+            BusinessParser.required(json, hours, "open")
+        );
+    }
+
+    private static Map<DayOfWeek, List<Hours>> hours(JsonReader json) {
+        Map<DayOfWeek, List<Hours>> hours = new LinkedHashMap<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            Hours dayHours = HoursParser.from(json);
+            hours.computeIfAbsent(dayHours.day, day -> new ArrayList<>()).add(dayHours);
+        }
+        json.endArray();
+        return hours;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Business;
+import com.montealegreluis.yelpv3.businesses.Businesses;
+import com.montealegreluis.yelpv3.businesses.Coordinates;
+import com.montealegreluis.yelpv3.businesses.Region;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.montealegreluis.yelpv3.streamingparser.BusinessParser.required;
+
+class SearchResultParser {
+    static SearchResult parseFrom(JsonReader json, ParsingErrors errors) {
+        Integer total = null;
+        Businesses businesses = null;
+        Coordinates center = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "total":
+                    total = json.nextInt();
+                    break;
+                case "businesses":
+                    businesses = parseBusinesses(json, errors);
+                    break;
+                case "region":
+                    center = parseCenter(json);
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return new SearchResult(
+            required(json, total, "total"),
+            required(json, businesses, "businesses"),
+            Region.withCenter(required(json, center, "region"))
+        );
+    }
+
+    private static Businesses parseBusinesses(JsonReader json, ParsingErrors errors) {
+        List<Business> businesses = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+            if (errors == null) businesses.add(BusinessParser.businessFrom(json, null));
+            else parseLeniently(json, errors, businesses);
+        }
+        json.endArray();
+        return new Businesses(businesses);
+    }
+
+    /**
+     * A business that can't be read is skipped, the rest of the page is kept
+     */
+    private static void parseLeniently(JsonReader json, ParsingErrors errors, List<Business> businesses) {
+        int depth = json.depth();
+        long offset = json.offset();
+        try {
+            businesses.add(BusinessParser.businessFrom(json, errors));
+        } catch (ParsingFailure e) {
+            if (e.isMalformed()) throw e;
+            json.skipRest(depth, offset);
+            errors.recordSkipped(e);
+        }
+    }
+
+    private static Coordinates parseCenter(JsonReader json) {
+        Coordinates center = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            if ("center".equals(json.nextName())) center = CoordinatesParser.from(json);
+            else json.skipValue();
+        }
+        json.endObject();
+        return required(json, center, "center");
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.businesses.BusinessField;
+import com.montealegreluis.yelpv3.businesses.BusinessProjection;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.client.AccessToken;
+import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.reviews.Review;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.montealegreluis.yelpv3.streamingparser.BusinessParser.required;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Maps JSON tokens directly into the domain objects in a single pass, without building an
+ * intermediate <code>JSONObject</code>. Members that aren't used by the domain objects are skipped
+ * without being allocated
+ * <p>
+ * Projections of search results decode only the requested fields of each business
+ * <p>
+ * Byte arrays and buffers, including direct ones, are decoded in chunks while they are parsed
+ * <p>
+ * Reviews pushed to a consumer are handed over one at a time, as they are read
+ * <p>
+ * Lenient parsers skip the businesses in a search result they can't read, and leave empty the
+ * optional values they can't read. Malformed documents fail anyway
+ * <p>
+ * <code>new Yelp(credentials, client, new StreamingParser())</code>
+ */
+public class StreamingParser implements Parser {
+    private final ParsingErrors errors;
+
+    public StreamingParser() {
+        this(null);
+    }
+
+    private StreamingParser(ParsingErrors errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * @param errors Counts the values that couldn't be read
+     */
+    public static StreamingParser lenient(ParsingErrors errors) {
+        return new StreamingParser(errors);
+    }
+
+    @Override
+    public BusinessDetails business(String response) {
+        return BusinessParser.detailsFrom(JsonReader.of(response), errors);
+    }
+
+    @Override
+    public SearchResult searchResult(String response) {
+        return SearchResultParser.parseFrom(JsonReader.of(response), errors);
+    }
+
+    @Override
+    public List<Review> reviews(String response) {
+        return ReviewsParser.parseFrom(JsonReader.of(response));
+    }
+
+    @Override
+    public AccessToken token(String response) {
+        return tokenFrom(JsonReader.of(response));
+    }
+
+    @Override
+    public List<BusinessProjection> businesses(String response, Set<BusinessField> fields) {
+        return ProjectionParser.parseFrom(JsonReader.of(response), fields);
+    }
+
+    @Override
+    public BusinessDetails business(InputStream response) {
+        return BusinessParser.detailsFrom(tokenize(response), errors);
+    }
+
+    @Override
+    public SearchResult searchResult(InputStream response) {
+        return SearchResultParser.parseFrom(tokenize(response), errors);
+    }
+
+    @Override
+    public List<Review> reviews(InputStream response) {
+        return ReviewsParser.parseFrom(tokenize(response));
+    }
+
+    @Override
+    public AccessToken token(InputStream response) {
+        return tokenFrom(tokenize(response));
+    }
+
+    @Override
+    public List<BusinessProjection> businesses(InputStream response, Set<BusinessField> fields) {
+        return ProjectionParser.parseFrom(tokenize(response), fields);
+    }
+
+    @Override
+    public void reviews(String response, Consumer<? super Review> consumer) {
+        ReviewsParser.parseFrom(JsonReader.of(response), consumer);
+    }
+
+    @Override
+    public void reviews(InputStream response, Consumer<? super Review> consumer) {
+        ReviewsParser.parseFrom(tokenize(response), consumer);
+    }
+
+    @Override
+    public void reviews(byte[] response, Consumer<? super Review> consumer) {
+        reviews(ByteBuffer.wrap(response), consumer);
+    }
+
+    @Override
+    public void reviews(ByteBuffer response, Consumer<? super Review> consumer) {
+        ReviewsParser.parseFrom(tokenize(response), consumer);
+    }
+
+    @Override
+    public BusinessDetails business(byte[] response) {
+        return business(ByteBuffer.wrap(response));
+    }
+
+    @Override
+    public SearchResult searchResult(byte[] response) {
+        return searchResult(ByteBuffer.wrap(response));
+    }
+
+    @Override
+    public List<Review> reviews(byte[] response) {
+        return reviews(ByteBuffer.wrap(response));
+    }
+
+    @Override
+    public AccessToken token(byte[] response) {
+        return token(ByteBuffer.wrap(response));
+    }
+
+    @Override
+    public List<BusinessProjection> businesses(byte[] response, Set<BusinessField> fields) {
+        return businesses(ByteBuffer.wrap(response), fields);
+    }
+
+    @Override
+    public BusinessDetails business(ByteBuffer response) {
+        return BusinessParser.detailsFrom(tokenize(response), errors);
+    }
+
+    @Override
+    public SearchResult searchResult(ByteBuffer response) {
+        return SearchResultParser.parseFrom(tokenize(response), errors);
+    }
+
+    @Override
+    public List<Review> reviews(ByteBuffer response) {
+        return ReviewsParser.parseFrom(tokenize(response));
+    }
+
+    @Override
+    public AccessToken token(ByteBuffer response) {
+        return tokenFrom(tokenize(response));
+    }
+
+    @Override
+    public List<BusinessProjection> businesses(ByteBuffer response, Set<BusinessField> fields) {
+        return ProjectionParser.parseFrom(tokenize(response), fields);
+    }
+
+    private JsonReader tokenize(ByteBuffer response) {
+        return JsonReader.of(new Utf8Reader(response));
+    }
+
+    private JsonReader tokenize(InputStream response) {
+        return JsonReader.of(new InputStreamReader(response, UTF_8));
+    }
+
+    private AccessToken tokenFrom(JsonReader json) {
+        String accessToken = null;
+        String tokenType = null;
+        Long expiresIn = null;
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "access_token":
+                    accessToken = json.nextString();
+                    break;
+                case "token_type":
+                    tokenType = json.nextString();
+                    break;
+                case "expires_in":
+                    expiresIn = json.nextLong();
+                    break;
+                default:
+                    json.skipValue();
+            }
+        }
+        json.endObject();
+        return AccessToken.fromYELP(
+            required(json, accessToken, "access_token"),
+            required(json, tokenType, "token_type"),
+            required(json, expiresIn, "expires_in")
+        );
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Decodes UTF-8 straight from a buffer into the tokenizer's characters, the body is never copied
+ * into an intermediate array or <code>String</code>
+ * <p>
+ * The buffer is read from its position to its limit, without changing them
+ */
+class Utf8Reader extends Reader {
+    private final ByteBuffer bytes;
+    private final CharsetDecoder decoder = UTF_8
+        .newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE)
+    ;
+    private boolean flushed;
+
+    Utf8Reader(ByteBuffer bytes) {
+        this.bytes = bytes.duplicate();
+    }
+
+    @Override
+    public int read(char[] chars, int offset, int length) {
+        if (length == 0) return 0;
+        CharBuffer decoded = CharBuffer.wrap(chars, offset, length);
+        if (!flushed) {
+            decoder.decode(bytes, decoded, true);
+            if (!bytes.hasRemaining()) flushed = decoder.flush(decoded).isUnderflow();
+        }
+        int read = decoded.position() - offset;
+        return read == 0 && flushed ? -1 : read;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.tokens;
+
+import com.montealegreluis.yelpv3.client.AccessToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Stores the token in a properties file
+ * <p>
+ * The token is written to a temporary file in the same directory, which then replaces the
+ * previous file atomically. Readers either see the previous token or the new one, never a
+ * partially written file. On POSIX file systems only the owner can read the file
+ */
+public class FileTokenStore implements TokenStore {
+    private final Path path;
+
+    public FileTokenStore(Path path) {
+        this.path = path.toAbsolutePath();
+    }
+
+    /**
+     * A missing file means there's no token yet
+     */
+    @Override
+    public AccessToken load() {
+        Properties values = new Properties();
+        try (InputStream file = Files.newInputStream(path)) {
+            values.load(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw TokenNotStored.cannotRead(path, e);
+        }
+
+        if (values.getProperty("access_token") == null)
+            throw TokenNotStored.cannotRead(path, new IOException("Missing access_token"));
+        try {
+            return AccessToken.fromValues(
+                values.getProperty("access_token"),
+                values.getProperty("token_type"),
+                Long.parseLong(values.getProperty("expires_on"))
+            );
+        } catch (NumberFormatException e) {
+            throw TokenNotStored.cannotRead(path, e);
+        }
+    }
+
+    @Override
+    public void save(AccessToken token) {
+        Properties values = new Properties();
+        values.setProperty("access_token", token.accessToken());
+        values.setProperty("token_type", token.tokenType());
+        values.setProperty("expires_on", Long.toString(token.expiresOn()));
+
+        Path temporary = null;
+        try {
+            Files.createDirectories(path.getParent());
+            temporary = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            restrictToOwner(temporary);
+            try (OutputStream file = Files.newOutputStream(temporary)) {
+                values.store(file, "Yelp access token");
+            }
+            replace(temporary);
+        } catch (IOException e) {
+            throw TokenNotStored.cannotWrite(path, e);
+        } finally {
+            deleteQuietly(temporary);
+        }
+    }
+
+    private void replace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, path, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, REPLACE_EXISTING);
+        }
+    }
+
+    private void restrictToOwner(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, PosixFilePermissions.fromString("rw-------"));
+        } catch (UnsupportedOperationException ignored) {
+            // Not a POSIX file system
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // The file was already moved, or it will be overwritten by the next save
+        }
+    }
+}
@@ -0,0 +1,23 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.tokens;
+
+import java.nio.file.Path;
+
+/**
+ * Exception thrown when a token store cannot read or write its token
+ */
+public class TokenNotStored extends RuntimeException {
+    private TokenNotStored(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public static TokenNotStored cannotWrite(Path path, Throwable cause) {
+        return new TokenNotStored(String.format("Cannot write access token to %s", path), cause);
+    }
+
+    public static TokenNotStored cannotRead(Path path, Throwable cause) {
+        return new TokenNotStored(String.format("Cannot read access token from %s", path), cause);
+    }
+}
@@ -0,0 +1,22 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.tokens;
+
+import com.montealegreluis.yelpv3.client.AccessToken;
+
+/**
+ * Keeps the access token between restarts, so that new instances don't need to authenticate
+ * before sending their first request
+ * <p>
+ * The store is read when it is given to <code>Yelp</code>, and written every time the token
+ * is refreshed. Implementations should be safe to share between threads
+ */
+public interface TokenStore {
+    /**
+     * @return The stored token, or <code>null</code> if there's none
+     */
+    AccessToken load();
+
+    void save(AccessToken token);
+}
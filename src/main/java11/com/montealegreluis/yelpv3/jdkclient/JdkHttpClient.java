@@ -0,0 +1,295 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.jdkclient;
+
+import com.montealegreluis.yelpv3.apacheclient.ConnectionPoolSettings;
+import com.montealegreluis.yelpv3.client.CompressionStatistics;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.Decompression;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import com.montealegreluis.yelpv3.client.YelpURIs;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Client built on the JDK HTTP client. Requires Java 11 or newer
+ * <p>
+ * It negotiates HTTP/2 with <code>api.yelp.com</code>, so that concurrent requests are
+ * multiplexed over a single TCP+TLS connection instead of opening one connection per request
+ * <p>
+ * Connecting and waiting for the response headers time out like <code>HTTP_1_1</code> does,
+ * after the timeouts in <code>ConnectionPoolSettings.defaults()</code>
+ * <p>
+ * Cancelling the future returned by <code>sendAsync</code> aborts the exchange on Java 16+
+ */
+public class JdkHttpClient implements YelpClient {
+    private final HttpClient client;
+    private final CompressionStatistics statistics;
+    private final Duration timeout;
+
+    /**
+     * Requests without a deadline wait for their response headers up to the default read
+     * timeout of <code>ConnectionPoolSettings</code>
+     */
+    public JdkHttpClient(HttpClient client) {
+        this(client, Duration.ofMillis(ConnectionPoolSettings.defaults().readTimeoutMillis()));
+    }
+
+    /**
+     * @param timeout Maximum time to wait for the response headers, requests with a deadline
+     * use the time they have left if it's shorter
+     */
+    public JdkHttpClient(HttpClient client, Duration timeout) {
+        this.client = client;
+        this.statistics = new CompressionStatistics();
+        this.timeout = timeout;
+    }
+
+    public static JdkHttpClient http2() {
+        return http2(ConnectionPoolSettings.defaults());
+    }
+
+    /**
+     * Only the connect and read timeouts apply, the JDK client manages its own connections
+     */
+    public static JdkHttpClient http2(ConnectionPoolSettings settings) {
+        return new JdkHttpClient(
+            HttpClient
+                .newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofMillis(settings.connectTimeoutMillis()))
+                .build(),
+            Duration.ofMillis(settings.readTimeoutMillis())
+        );
+    }
+
+    /**
+     * The body is streamed straight from the connection, close the response to release it
+     * <p>
+     * If the request has a deadline, it fails if the response headers don't arrive before it
+     * expires, and its body is closed once it expires, even while it is being read.
+     * Interrupting the calling thread aborts the exchange
+     */
+    @Override
+    public RawResponse send(YelpRequest request) {
+        if (request.hasDeadline() && request.deadline().isExpired())
+            throw DeadlineExceeded.forRequest(request.uri());
+        try {
+            return toRawResponse(request, client.send(
+                toHttpRequest(request),
+                HttpResponse.BodyHandlers.ofInputStream()
+            ));
+        } catch (HttpTimeoutException e) {
+            throw timedOut(request, e);
+        } catch (IOException e) {
+            throw TransportFailure.sending(request, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw DeadlineExceeded.interrupted(request.uri(), e);
+        }
+    }
+
+    /**
+     * Bodies are buffered, so that parsing never blocks the client's executor threads. They are
+     * inflated while they are parsed
+     * <p>
+     * The JDK's timeout only covers the wait for the response headers. If the request has a
+     * deadline, the future fails with <code>DeadlineExceeded</code> once it expires and the
+     * exchange is cancelled, even while its body is being read
+     */
+    @Override
+    public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+        if (request.hasDeadline() && request.deadline().isExpired())
+            return CompletableFuture.failedFuture(DeadlineExceeded.forRequest(request.uri()));
+
+        CompletableFuture<RawResponse> response = new CompletableFuture<>();
+        CompletableFuture<HttpResponse<byte[]>> exchange = client.sendAsync(
+            toHttpRequest(request),
+            HttpResponse.BodyHandlers.ofByteArray()
+        );
+        exchange.whenComplete((httpResponse, error) -> {
+            if (error != null) {
+                response.completeExceptionally(toFailure(request, error));
+                return;
+            }
+            try {
+                response.complete(toRawResponse(request, httpResponse, new ByteArrayInputStream(httpResponse.body())));
+            } catch (IOException e) {
+                response.completeExceptionally(TransportFailure.sending(request, e));
+            } catch (RuntimeException e) {
+                response.completeExceptionally(e);
+            }
+        });
+        ScheduledFuture<?> expiration = request.hasDeadline()
+            ? request.deadline().whenExpired(() -> {
+                if (response.completeExceptionally(DeadlineExceeded.forRequest(request.uri()))) exchange.cancel(true);
+            })
+            : null
+        ;
+        response.whenComplete((ignored, error) -> {
+            if (expiration != null) expiration.cancel(false);
+            if (response.isCancelled()) exchange.cancel(true);
+        });
+        return response;
+    }
+
+    /**
+     * Concurrent requests are multiplexed over a single HTTP/2 connection, so a single
+     * <code>HEAD</code> request is sent to open it, regardless of the amount requested
+     */
+    @Override
+    public int warmUp(int connections) {
+        if (connections < 1) return 0;
+        try {
+            client.send(
+                HttpRequest
+                    .newBuilder(URI.create(String.format("https://%s/", YelpURIs.HOST)))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build(),
+                HttpResponse.BodyHandlers.discarding()
+            );
+            return 1;
+        } catch (IOException e) {
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw TransportFailure.connectingTo(YelpURIs.HOST, e);
+        }
+    }
+
+    public CompressionStatistics compressionStatistics() {
+        return statistics;
+    }
+
+    private HttpRequest toHttpRequest(YelpRequest request) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri());
+        if ("POST".equals(request.method())) {
+            builder.header("Content-Type", "application/x-www-form-urlencoded");
+            builder.POST(HttpRequest.BodyPublishers.ofString(formEncoded(request.formParameters())));
+        } else {
+            builder.GET();
+        }
+        builder.header("Accept-Encoding", Decompression.ACCEPT_ENCODING);
+        builder.timeout(request.hasDeadline()
+            ? Duration.ofNanos(Math.max(1, Math.min(timeout.toNanos(), request.deadline().remaining(TimeUnit.NANOSECONDS))))
+            : timeout
+        );
+        request.headers().forEach(builder::header);
+        return builder.build();
+    }
+
+    private RawResponse toRawResponse(YelpRequest request, HttpResponse<InputStream> response) throws IOException {
+        if (!request.hasDeadline()) return toRawResponse(request, response, response.body());
+
+        InputStream body = response.body();
+        ScheduledFuture<?> close = closeWhenExpired(request, body);
+        try {
+            return toRawResponse(request, response, new FilterInputStream(body) {
+                @Override
+                public void close() throws IOException {
+                    close.cancel(false);
+                    super.close();
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            close.cancel(false);
+            body.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Closing the body stream unblocks a thread waiting for the next chunk, and cancels the
+     * rest of the exchange
+     */
+    private static ScheduledFuture<?> closeWhenExpired(YelpRequest request, InputStream body) {
+        return request.deadline().whenExpired(() -> {
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // The exchange is being abandoned anyway
+            }
+        });
+    }
+
+    /**
+     * If the status code is not the expected one, the body is read and closed right away
+     */
+    private RawResponse toRawResponse(
+        YelpRequest request,
+        HttpResponse<?> response,
+        InputStream encodedBody
+    ) throws IOException {
+        InputStream body = Decompression.decode(
+            response.headers().firstValue("Content-Encoding").orElse(null),
+            encodedBody,
+            statistics
+        );
+
+        if (!RawResponse.isExpected(response.statusCode())) {
+            try (body) {
+                throw new ErrorResponse(
+                    response.statusCode(),
+                    request.uri().toString(),
+                    new String(body.readAllBytes(), StandardCharsets.UTF_8),
+                    response.headers().firstValue("Retry-After").orElse(null)
+                );
+            }
+        }
+
+        return new RawResponse(response.statusCode(), response.headers().map(), body, body);
+    }
+
+    private static RuntimeException toFailure(YelpRequest request, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof RuntimeException) return (RuntimeException) cause;
+        if (cause instanceof HttpTimeoutException) return timedOut(request, (HttpTimeoutException) cause);
+        return TransportFailure.sending(request, cause);
+    }
+
+    /**
+     * Timeouts are only a deadline failure if the deadline expired, rather than the default
+     * connect or request timeout
+     */
+    private static RuntimeException timedOut(YelpRequest request, HttpTimeoutException timeout) {
+        if (request.hasDeadline() && request.deadline().isExpired())
+            return DeadlineExceeded.forRequest(request.uri(), timeout);
+        return TransportFailure.sending(request, timeout);
+    }
+
+    private String formEncoded(Map<String, String> parameters) {
+        return parameters
+            .entrySet()
+            .stream()
+            .map(parameter -> String.format(
+                "%s=%s",
+                URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8),
+                URLEncoder.encode(parameter.getValue(), StandardCharsets.UTF_8)
+            ))
+            .collect(Collectors.joining("&"))
+        ;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * HTTP server on a random local port, to test transports against real connections
+ */
+public class LocalServer implements Closeable {
+    private final HttpServer server;
+    private final ExecutorService handlers;
+
+    public static LocalServer start() throws IOException {
+        return new LocalServer(HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0));
+    }
+
+    public LocalServer on(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+        return this;
+    }
+
+    public URI uri(String path) {
+        return URI.create(String.format("http://127.0.0.1:%d%s", server.getAddress().getPort(), path));
+    }
+
+    public static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        respond(exchange, statusCode, body.getBytes(UTF_8));
+    }
+
+    public static void respond(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(statusCode, body.length == 0 ? -1 : body.length);
+        try (OutputStream response = exchange.getResponseBody()) {
+            response.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+
+    private LocalServer(HttpServer server) {
+        this.server = server;
+        this.handlers = Executors.newCachedThreadPool();
+        server.setExecutor(handlers);
+        server.start();
+    }
+}
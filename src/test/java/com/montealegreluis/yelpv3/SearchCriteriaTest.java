@@ -12,6 +12,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.time.Instant;
+import java.util.List;
 
 import static com.montealegreluis.yelpv3.businesses.PricingLevel.*;
 import static com.montealegreluis.yelpv3.search.Attribute.*;
@@ -48,6 +49,29 @@ public class SearchCriteriaTest {
         assertThat(criteria.toQueryString().toString(), containsString("price=1%2C2%2C3"));
     }
 
+    @Test
+    public void it_stops_paging_at_the_maximum_offset() {
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+        criteria.limit(Limit.of(30));
+        criteria.offset(Offset.of(900));
+
+        List<SearchCriteria> pages = criteria.nextPages(5000);
+
+        assertThat(pages.size(), is(3));
+        assertThat(pages.get(0).offset(), is(930));
+        assertThat(pages.get(2).offset(), is(990));
+        assertThat(pages.get(2).limit(), is(10));
+        assertThat(criteria.offset(), is(900));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void it_cannot_page_through_results_without_a_limit() {
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+        criteria.limit(Limit.of(0));
+
+        criteria.nextPages(100);
+    }
+
     @Test
     public void it_has_access_to_the_current_limit_and_offset_values() {
         int limit = 5;
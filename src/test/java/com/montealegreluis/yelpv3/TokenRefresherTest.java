@@ -0,0 +1,158 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.client.*;
+import com.montealegreluis.yelpv3.jsonparser.JSONParser;
+import com.montealegreluis.yelpv3.tokens.TokenStore;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class TokenRefresherTest {
+    @Test
+    public void it_sends_a_single_authentication_request_for_concurrent_callers() throws Exception {
+        TokenRefresher tokens = new TokenRefresher(
+            new Credentials("client-id", "client-secret"), client, new JSONParser(), new YelpURIs()
+        );
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        List<Future<AccessToken>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) results.add(callers.submit(() -> tokens.current()));
+        while (authentication.get() == null) Thread.sleep(1);
+        Thread.sleep(100);
+        authentication.get().complete(tokenResponse());
+
+        for (Future<AccessToken> result : results)
+            assertThat(result.get(1, TimeUnit.SECONDS).accessToken(), is("new-token"));
+        assertThat(sent.get(), is(1));
+        callers.shutdown();
+    }
+
+    @Test
+    public void it_keeps_using_a_token_about_to_expire_while_it_is_refreshed() {
+        Credentials credentials = new Credentials(
+            "client-id",
+            "client-secret",
+            AccessToken.fromValues("old-token", "Bearer", Instant.now().getEpochSecond() + 60)
+        );
+        TokenRefresher tokens = new TokenRefresher(credentials, client, new JSONParser(), new YelpURIs());
+
+        assertThat(tokens.current().accessToken(), is("old-token"));
+        assertThat(tokens.current().accessToken(), is("old-token"));
+        authentication.get().complete(tokenResponse());
+
+        assertThat(tokens.current().accessToken(), is("new-token"));
+        assertThat(sent.get(), is(1));
+    }
+
+    @Test
+    public void it_does_not_refresh_tokens_that_are_not_about_to_expire() {
+        Credentials credentials = new Credentials(
+            "client-id",
+            "client-secret",
+            AccessToken.fromValues("token", "Bearer", Instant.now().getEpochSecond() + 3600)
+        );
+        TokenRefresher tokens = new TokenRefresher(credentials, client, new JSONParser(), new YelpURIs());
+
+        tokens.current();
+
+        assertThat(sent.get(), is(0));
+    }
+
+    @Test
+    public void it_waits_before_refreshing_again_after_a_background_refresh_fails() {
+        Credentials credentials = new Credentials(
+            "client-id",
+            "client-secret",
+            AccessToken.fromValues("old-token", "Bearer", Instant.now().getEpochSecond() + 60)
+        );
+        TokenRefresher tokens = new TokenRefresher(credentials, client, new JSONParser(), new YelpURIs());
+
+        tokens.current();
+        authentication.get().completeExceptionally(new ErrorResponse(500, "/oauth2/token", ""));
+        tokens.current();
+
+        assertThat(sent.get(), is(1));
+    }
+
+    @Test
+    public void it_starts_with_a_stored_token() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        store.save(AccessToken.fromValues("stored-token", "Bearer", Instant.now().getEpochSecond() + 3600));
+        TokenRefresher tokens = new TokenRefresher(
+            new Credentials("client-id", "client-secret"), client, new JSONParser(), new YelpURIs(), store
+        );
+
+        assertThat(tokens.current().accessToken(), is("stored-token"));
+        assertThat(sent.get(), is(0));
+    }
+
+    @Test
+    public void it_saves_new_tokens() {
+        InMemoryTokenStore store = new InMemoryTokenStore();
+        TokenRefresher tokens = new TokenRefresher(
+            new Credentials("client-id", "client-secret"), client, new JSONParser(), new YelpURIs(), store
+        );
+
+        CompletableFuture<AccessToken> token = tokens.currentAsync();
+        authentication.get().complete(tokenResponse());
+        token.join();
+
+        assertThat(store.load().accessToken(), is("new-token"));
+    }
+
+    private static class InMemoryTokenStore implements TokenStore {
+        private volatile AccessToken token;
+
+        @Override
+        public AccessToken load() {
+            return token;
+        }
+
+        @Override
+        public void save(AccessToken token) {
+            this.token = token;
+        }
+    }
+
+    private RawResponse tokenResponse() {
+        return new RawResponse(
+            200,
+            Collections.emptyMap(),
+            "{\"access_token\": \"new-token\", \"token_type\": \"Bearer\", \"expires_in\": 15552000}"
+        );
+    }
+
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicReference<CompletableFuture<RawResponse>> authentication =
+        new AtomicReference<>();
+    private final YelpClient client = new YelpClient() {
+        @Override
+        public RawResponse send(YelpRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+            sent.incrementAndGet();
+            CompletableFuture<RawResponse> response = new CompletableFuture<>();
+            authentication.set(response);
+            return response;
+        }
+    };
+}
@@ -0,0 +1,37 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.apacheclient.ApacheAsyncHttpClient;
+import com.montealegreluis.yelpv3.apacheclient.ApacheHttpClient;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+public class TransportTest {
+    @Test
+    public void it_uses_a_pool_of_apache_connections_for_http_1_1() {
+        assertThat(Transport.HTTP_1_1.newClient(), instanceOf(ApacheHttpClient.class));
+    }
+
+    @Test
+    public void it_uses_a_pool_of_non_blocking_apache_connections_for_async_http_1_1() {
+        assertThat(Transport.HTTP_1_1_ASYNC.newClient(), instanceOf(ApacheAsyncHttpClient.class));
+    }
+
+    @Test
+    public void it_uses_the_jdk_client_for_http_2() {
+        assumeThat(System.getProperty("java.specification.version"), not(startsWith("1.")));
+
+        YelpClient client = Transport.HTTP_2.newClient();
+
+        assertThat(client.getClass().getSimpleName(), is("JdkHttpClient"));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.client.*;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class YelpAsyncTest {
+    @Test
+    public void it_gets_a_business_without_blocking() throws Exception {
+        Yelp yelp = new Yelp(
+            credentials,
+            request -> new RawResponse(200, Collections.emptyMap(), "{}")
+        ).retainingOriginalResponses();
+
+        BusinessResponse response = yelp.searchByIdAsync("bella-on-the-river-san-antonio").get();
+
+        assertThat(response.originalResponse(), is("{}"));
+    }
+
+    @Test
+    public void it_parses_the_body_without_retaining_it_by_default() throws Exception {
+        Yelp yelp = new Yelp(
+            credentials,
+            request -> new RawResponse(200, Collections.emptyMap(), "{\"reviews\": []}")
+        );
+
+        ReviewsResponse response = yelp.reviewsAsync("bella-on-the-river-san-antonio").get();
+
+        assertThat(response.reviews().isEmpty(), is(true));
+        assertThat(response.hasOriginalResponse(), is(false));
+    }
+
+    @Test
+    public void it_sends_blocking_requests_outside_the_common_fork_join_pool() throws Exception {
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        Yelp yelp = new Yelp(credentials, request -> {
+            sender.set(Thread.currentThread());
+            return new RawResponse(200, Collections.emptyMap(), "{\"reviews\": []}");
+        });
+
+        yelp.reviewsAsync("bella-on-the-river-san-antonio").get();
+
+        assertThat(sender.get() instanceof ForkJoinWorkerThread, is(false));
+        assertThat(sender.get().getName(), startsWith("yelp-blocking-send"));
+    }
+
+    @Test
+    public void it_cancels_the_http_exchange_when_the_caller_gives_up() {
+        CompletableFuture<RawResponse> exchange = new CompletableFuture<>();
+        Yelp yelp = new Yelp(credentials, new YelpClient() {
+            @Override
+            public RawResponse send(YelpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+                return exchange;
+            }
+        });
+
+        yelp.reviewsAsync("bella-on-the-river-san-antonio").cancel(true);
+
+        assertThat(exchange.isCancelled(), is(true));
+    }
+
+    @Test
+    public void it_reports_http_errors_through_the_future() throws Exception {
+        Yelp yelp = new Yelp(credentials, request -> {
+            throw new ErrorResponse(404, request.uri().toString(), "{}");
+        });
+
+        try {
+            yelp.searchByIdAsync("unknown").get();
+            fail("An ErrorResponse was expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(ErrorResponse.class));
+        }
+    }
+
+    private final Credentials credentials = new Credentials(
+        "client-id",
+        "client-secret",
+        AccessToken.fromValues("token", "Bearer", Instant.now().getEpochSecond() + 3600)
+    );
+}
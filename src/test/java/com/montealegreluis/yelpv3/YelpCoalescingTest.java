@@ -0,0 +1,244 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.client.*;
+import com.montealegreluis.yelpv3.search.SearchCriteria;
+import com.montealegreluis.yelpv3.search.SortingMode;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class YelpCoalescingTest {
+    @Test
+    public void it_shares_a_single_request_between_concurrent_calls() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Yelp yelp = new Yelp(credentials, request -> {
+            sent.incrementAndGet();
+            await(release);
+            return new RawResponse(200, Collections.emptyMap(), "{\"reviews\": []}");
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        List<Future<ReviewsResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 4; i++) responses.add(callers.submit(() -> yelp.reviews("gary-danko")));
+        while (sent.get() == 0) Thread.sleep(1);
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<ReviewsResponse> response : responses)
+            assertThat(response.get(1, TimeUnit.SECONDS), sameInstance(responses.get(0).get()));
+        assertThat(sent.get(), is(1));
+        callers.shutdown();
+    }
+
+    @Test
+    public void it_shares_requests_for_identical_search_criteria() {
+        CompletableFuture<RawResponse> exchange = new CompletableFuture<>();
+        Yelp yelp = new Yelp(credentials, asyncClient(exchange)).retainingOriginalResponses();
+
+        CompletableFuture<SearchResponse> first = yelp.searchAsync(criteria());
+        CompletableFuture<SearchResponse> second = yelp.searchAsync(criteria());
+        exchange.complete(new RawResponse(200, Collections.emptyMap(), "{}"));
+
+        assertThat(first.join(), sameInstance(second.join()));
+        assertThat(sent.get(), is(1));
+    }
+
+    @Test
+    public void it_sends_a_new_request_once_the_previous_one_completes() {
+        Yelp yelp = new Yelp(credentials, request -> {
+            sent.incrementAndGet();
+            return new RawResponse(200, Collections.emptyMap(), "{}");
+        }).retainingOriginalResponses();
+
+        yelp.searchById("gary-danko");
+        yelp.searchById("gary-danko");
+
+        assertThat(sent.get(), is(2));
+    }
+
+    @Test
+    public void it_keeps_the_shared_request_while_other_callers_wait_for_it() {
+        CompletableFuture<RawResponse> exchange = new CompletableFuture<>();
+        Yelp yelp = new Yelp(credentials, asyncClient(exchange));
+
+        CompletableFuture<BusinessResponse> first = yelp.searchByIdAsync("gary-danko");
+        CompletableFuture<BusinessResponse> second = yelp.searchByIdAsync("gary-danko");
+        first.cancel(true);
+
+        assertThat(exchange.isCancelled(), is(false));
+        second.cancel(true);
+        assertThat(exchange.isCancelled(), is(true));
+    }
+
+    @Test
+    public void it_cancels_the_shared_request_once_callers_that_stopped_waiting_are_gone() {
+        CompletableFuture<RawResponse> exchange = new CompletableFuture<>();
+        Yelp yelp = new Yelp(credentials, asyncClient(exchange));
+
+        CompletableFuture<BusinessResponse> first = yelp.searchByIdAsync("gary-danko");
+        try {
+            yelp.searchById("gary-danko", Deadline.after(20, TimeUnit.MILLISECONDS));
+            fail("Deadline should have expired");
+        } catch (DeadlineExceeded e) {
+            first.cancel(true);
+            assertThat(exchange.isCancelled(), is(true));
+        }
+    }
+
+    @Test
+    public void it_stops_waiting_for_a_shared_request_once_the_deadline_expires() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Yelp yelp = new Yelp(credentials, request -> {
+            sent.incrementAndGet();
+            await(release);
+            return new RawResponse(200, Collections.emptyMap(), "{}");
+        }).retainingOriginalResponses();
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        Future<BusinessResponse> leader = callers.submit(() -> yelp.searchById("gary-danko"));
+        while (sent.get() == 0) Thread.sleep(1);
+
+        try {
+            yelp.searchById("gary-danko", Deadline.after(50, TimeUnit.MILLISECONDS));
+            fail("Deadline should have expired");
+        } catch (DeadlineExceeded e) {
+            release.countDown();
+            leader.get(1, TimeUnit.SECONDS);
+            assertThat(sent.get(), is(1));
+        }
+        callers.shutdown();
+    }
+
+    @Test
+    public void it_sends_the_request_again_if_its_sender_deadline_expires_first() throws Exception {
+        Yelp yelp = new Yelp(credentials, request -> {
+            if (sent.incrementAndGet() == 1) {
+                while (!request.deadline().isExpired()) Thread.yield();
+                throw DeadlineExceeded.forRequest(request.uri());
+            }
+            return new RawResponse(200, Collections.emptyMap(), "{}");
+        }).retainingOriginalResponses();
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        Future<BusinessResponse> leader = callers.submit(
+            () -> yelp.searchById("gary-danko", Deadline.after(100, TimeUnit.MILLISECONDS))
+        );
+        while (sent.get() == 0) Thread.sleep(1);
+
+        yelp.searchById("gary-danko", Deadline.after(5, TimeUnit.SECONDS));
+
+        assertThat(sent.get(), is(2));
+        try {
+            leader.get(1, TimeUnit.SECONDS);
+            fail("Leader's deadline should have expired");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof DeadlineExceeded, is(true));
+        }
+        callers.shutdown();
+    }
+
+    @Test
+    public void it_sends_the_request_again_if_its_sender_deadline_expires_while_reading_the_body() throws Exception {
+        Yelp yelp = new Yelp(credentials, request -> {
+            if (sent.incrementAndGet() == 1) return new RawResponse(
+                200,
+                Collections.emptyMap(),
+                abortedOnceExpired("{\"reviews\": [", request.deadline()),
+                () -> {}
+            );
+            return new RawResponse(200, Collections.emptyMap(), "{\"reviews\": []}");
+        });
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+        Future<ReviewsResponse> leader = callers.submit(
+            () -> yelp.reviews("gary-danko", Deadline.after(100, TimeUnit.MILLISECONDS))
+        );
+        while (sent.get() == 0) Thread.sleep(1);
+
+        ReviewsResponse response = yelp.reviews("gary-danko", Deadline.after(5, TimeUnit.SECONDS));
+
+        assertThat(response.reviews().isEmpty(), is(true));
+        assertThat(sent.get(), is(2));
+        try {
+            leader.get(1, TimeUnit.SECONDS);
+            fail("Leader's deadline should have expired");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof DeadlineExceeded, is(true));
+        }
+        callers.shutdown();
+    }
+
+    /**
+     * Body whose connection is aborted, as transports do, once the deadline expires
+     */
+    private InputStream abortedOnceExpired(String partialBody, Deadline deadline) {
+        return new SequenceInputStream(
+            new ByteArrayInputStream(partialBody.getBytes(StandardCharsets.UTF_8)),
+            new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    while (!deadline.isExpired()) Thread.yield();
+                    throw new IOException("Connection aborted");
+                }
+            }
+        );
+    }
+
+    private YelpClient asyncClient(CompletableFuture<RawResponse> exchange) {
+        return new YelpClient() {
+            @Override
+            public RawResponse send(YelpRequest request) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+                sent.incrementAndGet();
+                return exchange;
+            }
+        };
+    }
+
+    private SearchCriteria criteria() {
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+        criteria.withTerm("restaurants");
+        criteria.sortBy(SortingMode.RATING);
+        return criteria;
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final AtomicInteger sent = new AtomicInteger();
+    private final Credentials credentials = new Credentials(
+        "client-id",
+        "client-secret",
+        AccessToken.fromValues("token", "Bearer", Instant.now().getEpochSecond() + 3600)
+    );
+}
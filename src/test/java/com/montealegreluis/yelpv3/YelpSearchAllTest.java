@@ -0,0 +1,170 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.businesses.Business;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.client.*;
+import com.montealegreluis.yelpv3.search.Limit;
+import com.montealegreluis.yelpv3.search.SearchCriteria;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class YelpSearchAllTest {
+    @Test
+    public void it_merges_every_page_in_rank_order_up_to_the_maximum_offset() {
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+        criteria.limit(Limit.of(50));
+
+        SearchResult result = yelp.searchAll(criteria, 3);
+
+        List<String> ids = result.businesses.stream().map(business -> business.id).collect(Collectors.toList());
+        assertThat(result.total, is(1234));
+        assertThat(ids, is(IntStream.range(0, 1000).mapToObj(i -> "business-" + i).collect(Collectors.toList())));
+        assertThat(requests.get(), is(20));
+        assertThat(maxConcurrentRequests.get(), lessThanOrEqualTo(3));
+    }
+
+    @Test
+    public void it_only_fetches_the_pages_needed_for_the_total() {
+        total = 45;
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+
+        SearchResult result = yelp.searchAll(criteria);
+
+        assertThat(result.businesses.size(), is(45));
+        assertThat(requests.get(), is(3));
+    }
+
+    @Test(expected = ErrorResponse.class)
+    public void it_fails_if_any_page_fails() {
+        failingOffset = 40;
+
+        yelp.searchAll(SearchCriteria.byLocation("San Antonio"));
+    }
+
+    @Test
+    public void it_cancels_the_pages_in_flight_once_a_page_fails() {
+        failingOffset = 40;
+        List<CompletableFuture<RawResponse>> inFlight = new CopyOnWriteArrayList<>();
+        Yelp yelp = yelpWith(request -> {
+            if (parameter(request, "offset", 0) == 0 || parameter(request, "offset", 0) == failingOffset)
+                return CompletableFuture.supplyAsync(() -> page(request));
+            CompletableFuture<RawResponse> page = new CompletableFuture<>();
+            inFlight.add(page);
+            return page;
+        });
+
+        try {
+            yelp.searchAll(SearchCriteria.byLocation("San Antonio"), 3);
+            fail("Search should have failed");
+        } catch (ErrorResponse e) {
+            assertThat(inFlight.isEmpty(), is(false));
+            inFlight.forEach(page -> assertThat(page.isCancelled(), is(true)));
+        }
+    }
+
+    @Test
+    public void it_does_not_nest_calls_for_pages_that_complete_right_away() {
+        latencyMillis = 0;
+        List<Integer> depths = new CopyOnWriteArrayList<>();
+        Yelp yelp = yelpWith(request -> {
+            depths.add(Thread.currentThread().getStackTrace().length);
+            return CompletableFuture.completedFuture(page(request));
+        });
+        SearchCriteria criteria = SearchCriteria.byLocation("San Antonio");
+        criteria.limit(Limit.of(1));
+
+        SearchResult result = yelp.searchAll(criteria, 1);
+
+        assertThat(result.businesses.size(), is(1000));
+        assertThat(depths.get(depths.size() - 1), is(depths.get(1)));
+    }
+
+    private Yelp yelpWith(Function<YelpRequest, CompletableFuture<RawResponse>> sendAsync) {
+        return new Yelp(credentials, new YelpClient() {
+            @Override
+            public RawResponse send(YelpRequest request) {
+                return page(request);
+            }
+
+            @Override
+            public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+                return sendAsync.apply(request);
+            }
+        });
+    }
+
+    private RawResponse page(YelpRequest request) {
+        int offset = parameter(request, "offset", 0);
+        int limit = parameter(request, "limit", 20);
+        int now = concurrentRequests.incrementAndGet();
+        maxConcurrentRequests.accumulateAndGet(now, Math::max);
+        requests.incrementAndGet();
+        try {
+            Thread.sleep(latencyMillis);
+            if (offset == failingOffset) throw new ErrorResponse(500, request.uri().toString(), "{}");
+            String businesses = IntStream
+                .range(offset, Math.min(offset + limit, total))
+                .mapToObj(this::business)
+                .collect(Collectors.joining(", "));
+            return new RawResponse(200, Collections.emptyMap(), String.format(
+                "{\"total\": %d, \"businesses\": [%s], \"region\": {\"center\": {\"latitude\": 29.4, \"longitude\": -98.5}}}",
+                total,
+                businesses
+            ));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            concurrentRequests.decrementAndGet();
+        }
+    }
+
+    private String business(int rank) {
+        return String.format(
+            "{\"id\": \"business-%d\", \"name\": \"Business %d\", \"rating\": 4.5, \"phone\": \"\", " +
+                "\"is_closed\": false, \"categories\": [], \"review_count\": 1, \"transactions\": [], " +
+                "\"url\": \"https://www.yelp.com/biz/business-%d\", \"image_url\": \"\", " +
+                "\"coordinates\": {\"latitude\": 29.4, \"longitude\": -98.5}, \"location\": {\"city\": \"San Antonio\", " +
+                "\"state\": \"TX\", \"country\": \"US\", \"zip_code\": \"78205\", \"display_address\": []}}",
+            rank,
+            rank,
+            rank
+        );
+    }
+
+    private static int parameter(YelpRequest request, String name, int defaultValue) {
+        Matcher value = Pattern.compile(name + "=(\\d+)").matcher(request.uri().getQuery());
+        return value.find() ? Integer.parseInt(value.group(1)) : defaultValue;
+    }
+
+    private int total = 1234;
+    private long latencyMillis = 5;
+    private int failingOffset = -1;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+    private final Credentials credentials = new Credentials(
+        "client-id",
+        "client-secret",
+        AccessToken.fromValues("token", "Bearer", Instant.now().getEpochSecond() + 3600)
+    );
+    private final Yelp yelp = new Yelp(credentials, this::page);
+}
@@ -0,0 +1,54 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3;
+
+import com.montealegreluis.yelpv3.cache.CachePolicy;
+import com.montealegreluis.yelpv3.cache.CachingYelpClient;
+import com.montealegreluis.yelpv3.cache.LruResponseStore;
+import com.montealegreluis.yelpv3.client.*;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class YelpWarmUpTest {
+    @Test
+    public void it_opens_connections_and_gets_a_token() {
+        Credentials credentials = new Credentials("client-id", "client-secret");
+        Yelp yelp = new Yelp(credentials, client);
+
+        WarmUpReport report = yelp.warmUp(4);
+
+        assertThat(report.connections(), is(4));
+        assertThat(credentials.token().accessToken(), is("token"));
+    }
+
+    @Test
+    public void it_warms_up_the_client_wrapped_by_a_decorator() {
+        Yelp yelp = new Yelp(
+            new Credentials("client-id", "client-secret"),
+            new CachingYelpClient(client, CachePolicy.defaults(), new LruResponseStore(1024))
+        );
+
+        assertThat(yelp.warmUp(2).connections(), is(2));
+    }
+
+    private final YelpClient client = new YelpClient() {
+        @Override
+        public RawResponse send(YelpRequest request) {
+            return new RawResponse(
+                200,
+                Collections.emptyMap(),
+                "{\"access_token\": \"token\", \"token_type\": \"Bearer\", \"expires_in\": 15552000}"
+            );
+        }
+
+        @Override
+        public int warmUp(int connections) {
+            return connections;
+        }
+    };
+}
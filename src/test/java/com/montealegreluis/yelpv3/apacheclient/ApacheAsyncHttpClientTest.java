@@ -0,0 +1,109 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import com.montealegreluis.yelpv3.LocalServer;
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.LocalServer.respond;
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ApacheAsyncHttpClientTest {
+    @Before
+    public void startServer() throws IOException {
+        server = LocalServer
+            .start()
+            .on("/v3/businesses/gary-danko", exchange -> respond(exchange, 200, "{\"id\": \"gary-danko\"}"))
+            .on("/v3/businesses/unknown", exchange -> respond(exchange, 404, "{}"))
+            .on("/v3/businesses/slow", exchange -> {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                }
+                respond(exchange, 200, "{}");
+            })
+        ;
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        release.countDown();
+        client.close();
+        server.close();
+    }
+
+    @Test
+    public void it_sends_requests_without_blocking_the_caller() {
+        try (RawResponse response = client.sendAsync(request("/v3/businesses/gary-danko")).join()) {
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.body(), is("{\"id\": \"gary-danko\"}"));
+        }
+    }
+
+    @Test
+    public void it_reports_unexpected_status_codes_through_the_future() throws Exception {
+        try {
+            client.sendAsync(request("/v3/businesses/unknown")).get(5, TimeUnit.SECONDS);
+            fail("An ErrorResponse was expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(ErrorResponse.class));
+            assertThat(((ErrorResponse) e.getCause()).statusCode(), is(404));
+        }
+    }
+
+    @Test
+    public void it_aborts_the_exchange_and_releases_its_connection_when_cancelled() throws Exception {
+        CompletableFuture<RawResponse> slow = client.sendAsync(request("/v3/businesses/slow"));
+        Thread.sleep(100);
+
+        slow.cancel(true);
+
+        try (RawResponse response = client
+            .sendAsync(request("/v3/businesses/gary-danko"))
+            .get(5, TimeUnit.SECONDS)
+        ) {
+            assertThat(response.statusCode(), is(200));
+        }
+    }
+
+    @Test
+    public void it_fails_once_the_deadline_expires() throws Exception {
+        YelpRequest request = request("/v3/businesses/slow").withDeadline(Deadline.after(100, TimeUnit.MILLISECONDS));
+
+        try {
+            client.sendAsync(request).get(2, TimeUnit.SECONDS);
+            fail("Deadline should have expired");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(DeadlineExceeded.class));
+        }
+    }
+
+    private YelpRequest request(String path) {
+        return YelpRequest.get(BUSINESS, server.uri(path), "token");
+    }
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ApacheAsyncHttpClient client = ApacheAsyncHttpClient.pooled(
+        ConnectionPoolSettings.defaults().withMaxTotal(1).withMaxPerRoute(1).withTimeouts(1, 5, 1, TimeUnit.SECONDS),
+        1
+    );
+    private LocalServer server;
+}
@@ -0,0 +1,113 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.apacheclient;
+
+import com.montealegreluis.yelpv3.LocalServer;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.LocalServer.respond;
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ApacheHttpClientTest {
+    @Before
+    public void startServer() throws IOException {
+        server = LocalServer
+            .start()
+            .on("/v3/businesses/gary-danko", exchange -> {
+                connections.add(exchange.getRemoteAddress());
+                respond(exchange, 200, "{\"id\": \"gary-danko\"}");
+            })
+            .on("/v3/businesses/unknown", exchange -> respond(exchange, 404, "{}"))
+        ;
+    }
+
+    @After
+    public void stopServer() {
+        server.close();
+    }
+
+    @Test
+    public void it_releases_the_connection_once_the_response_is_closed() throws IOException {
+        try (ApacheHttpClient client = ApacheHttpClient.pooled(settings)) {
+            for (int i = 0; i < 5; i++) {
+                try (RawResponse response = client.send(request("/v3/businesses/gary-danko"))) {
+                    assertThat(response.body(), is("{\"id\": \"gary-danko\"}"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void it_releases_the_connection_of_an_unexpected_status_code() throws IOException {
+        try (ApacheHttpClient client = ApacheHttpClient.pooled(settings)) {
+            for (int i = 0; i < 5; i++) {
+                try {
+                    client.send(request("/v3/businesses/unknown"));
+                    fail("An ErrorResponse was expected");
+                } catch (ErrorResponse e) {
+                    assertThat(e.statusCode(), is(404));
+                }
+            }
+
+            client.send(request("/v3/businesses/gary-danko")).close();
+        }
+    }
+
+    @Test
+    public void it_waits_for_a_connection_once_the_route_limit_is_reached() throws IOException {
+        try (ApacheHttpClient client = ApacheHttpClient.pooled(settings)) {
+            RawResponse open = client.send(request("/v3/businesses/gary-danko"));
+            try {
+                client.send(request("/v3/businesses/gary-danko"));
+                fail("There should be no connections left in the pool");
+            } catch (TransportFailure e) {
+                open.close();
+            }
+
+            client.send(request("/v3/businesses/gary-danko")).close();
+        }
+    }
+
+    @Test
+    public void it_closes_idle_connections() throws Exception {
+        try (ApacheHttpClient client = ApacheHttpClient.pooled(settings.withIdleTimeout(100, TimeUnit.MILLISECONDS))) {
+            client.send(request("/v3/businesses/gary-danko")).close();
+            client.send(request("/v3/businesses/gary-danko")).close();
+            Thread.sleep(500);
+            client.send(request("/v3/businesses/gary-danko")).close();
+        }
+
+        assertThat(connections.get(1), is(connections.get(0)));
+        assertThat(connections.get(2), is(not(connections.get(1))));
+    }
+
+    private YelpRequest request(String path) {
+        return YelpRequest.get(BUSINESS, server.uri(path), "token");
+    }
+
+    private final ConnectionPoolSettings settings = ConnectionPoolSettings
+        .defaults()
+        .withMaxTotal(1)
+        .withMaxPerRoute(1)
+        .withTimeouts(1000, 5000, 200, TimeUnit.MILLISECONDS)
+    ;
+    private final List<InetSocketAddress> connections = new CopyOnWriteArrayList<>();
+    private LocalServer server;
+}
@@ -0,0 +1,92 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.archive;
+
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+import com.montealegreluis.yelpv3.streamingparser.StreamingParser;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class ArchiveParserTest {
+    @Test
+    public void it_keeps_the_order_of_the_lines() {
+        try (Stream<SearchResult> results = parser.searchResults(archiveOf(200))) {
+            List<Integer> totals = results.map(result -> result.total).collect(Collectors.toList());
+
+            assertThat(totals, is(IntStream.range(0, 200).boxed().collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    public void it_parses_every_line_when_unordered() {
+        ArchiveParser unordered = new ArchiveParser(new StreamingParser(), settings.unordered(), pool);
+
+        try (Stream<SearchResult> results = unordered.searchResults(archiveOf(200))) {
+            List<Integer> totals = results.map(result -> result.total).sorted().collect(Collectors.toList());
+
+            assertThat(totals, is(IntStream.range(0, 200).boxed().collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    public void it_reads_a_bounded_number_of_chunks_ahead() {
+        AtomicInteger parsed = new AtomicInteger();
+
+        try (Stream<String> lines = parser.parse(archiveOf(1000), line -> {
+            parsed.incrementAndGet();
+            return line;
+        })) {
+            Iterator<String> results = lines.iterator();
+            results.next();
+            pool.awaitQuiescence(5, TimeUnit.SECONDS);
+
+            assertThat(parsed.get(), lessThanOrEqualTo(3 * 7));
+        }
+    }
+
+    @Test(expected = ParsingFailure.class)
+    public void it_fails_on_lines_it_cannot_parse() {
+        String archive = "{\"total\": 1, \"businesses\": [], \"region\": {\"center\": {}}}\n{\"total\": tru}\n";
+
+        try (Stream<SearchResult> results = parser.searchResults(new StringReader(archive))) {
+            results.forEach(result -> {});
+        }
+    }
+
+    @After
+    public void shutDownPool() {
+        pool.shutdownNow();
+    }
+
+    private StringReader archiveOf(int lines) {
+        StringBuilder archive = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            archive.append(String.format(
+                "{\"total\": %d, \"businesses\": [], \"region\": {\"center\": {\"latitude\": 29.4, \"longitude\": -98.5}}}%n",
+                i
+            ));
+            if (i % 50 == 0) archive.append("\n");
+        }
+        return new StringReader(archive.toString());
+    }
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+    private final ArchiveSettings settings = ArchiveSettings.defaults().withLinesPerChunk(7).withChunksInFlight(3);
+    private final ArchiveParser parser = new ArchiveParser(new StreamingParser(), settings, pool);
+}
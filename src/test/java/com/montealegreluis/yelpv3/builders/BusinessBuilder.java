@@ -6,10 +6,9 @@ package com.montealegreluis.yelpv3.builders;
 import com.github.javafaker.Faker;
 import com.montealegreluis.yelpv3.businesses.Business;
 import com.montealegreluis.yelpv3.businesses.Categories;
+import com.montealegreluis.yelpv3.businesses.Link;
 import com.montealegreluis.yelpv3.businesses.PricingLevel;
 
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.util.Collections;
 
 public class BusinessBuilder {
@@ -26,28 +25,24 @@ public class BusinessBuilder {
     }
 
     public Business build() {
-        try {
-            return new Business(
-                faker.number().numberBetween(1, 5),
-                PricingLevel.fromSymbol(String.join(
-                    "",
-                    Collections.nCopies(faker.number().numberBetween(1, 4), "$")
-                )),
-                faker.phoneNumber().phoneNumber(),
-                id != null ? id : faker.internet().slug(),
-                faker.bool().bool(),
-                new Categories(),
-                faker.number().numberBetween(1, 500),
-                faker.company().name(),
-                new URL(String.format("https://%s", faker.internet().url())),
-                A.coordinate().build(),
-                new URL(String.format("https://%s", faker.internet().url())),
-                null,
-                null,
-                Collections.emptyList()
-            );
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
-        }
+        return new Business(
+            faker.number().numberBetween(1, 5),
+            PricingLevel.fromSymbol(String.join(
+                "",
+                Collections.nCopies(faker.number().numberBetween(1, 4), "$")
+            )),
+            faker.phoneNumber().phoneNumber(),
+            id != null ? id : faker.internet().slug(),
+            faker.bool().bool(),
+            new Categories(),
+            faker.number().numberBetween(1, 500),
+            faker.company().name(),
+            Link.to(String.format("https://%s", faker.internet().url())),
+            A.coordinate().build(),
+            Link.to(String.format("https://%s", faker.internet().url())),
+            null,
+            null,
+            Collections.emptyList()
+        );
     }
 }
@@ -0,0 +1,36 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.businesses;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class LinkTest {
+    @Test
+    public void it_accepts_absolute_http_links() {
+        assertThat(Link.isValid("https://www.yelp.com/biz/gary-danko-san-francisco?adjust_creative=IURx5a"), is(true));
+        assertThat(Link.isValid("http://s3-media1.fl.yelpcdn.com/bphoto/GgcpgqwQG1eTNdw6mXD51Q/o.jpg"), is(true));
+    }
+
+    @Test
+    public void it_rejects_relative_blank_or_non_http_links() {
+        assertThat(Link.isValid(""), is(false));
+        assertThat(Link.isValid("https://"), is(false));
+        assertThat(Link.isValid("/biz/gary-danko"), is(false));
+        assertThat(Link.isValid("ftp://www.yelp.com/biz"), is(false));
+        assertThat(Link.isValid("https://www.yelp.com/biz/gary danko"), is(false));
+    }
+
+    @Test
+    public void it_builds_urls_only_when_asked_for() {
+        Link link = Link.to("https://www.yelp.com/biz/gary-danko-san-francisco");
+
+        assertThat(link.toString(), is("https://www.yelp.com/biz/gary-danko-san-francisco"));
+        assertThat(link.toURL().getHost(), is("www.yelp.com"));
+        assertThat(link.toURI().getPath(), is("/biz/gary-danko-san-francisco"));
+        assertThat(link, is(Link.to("https://www.yelp.com/biz/gary-danko-san-francisco")));
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.cache;
+
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.Test;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CachingYelpClientTest {
+    @Test
+    public void it_serves_fresh_responses_from_the_cache() {
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new LruResponseStore(1024), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        RawResponse cached = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(cached.body(), is("{\"version\": 1}"));
+        assertThat(sent.size(), is(1));
+    }
+
+    @Test
+    public void it_requests_stale_responses_again() {
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new LruResponseStore(1024), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        RawResponse response = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(response.body(), is("{\"version\": 2}"));
+        assertThat(sent.size(), is(2));
+    }
+
+    @Test
+    public void it_revalidates_stale_responses_with_an_etag() {
+        eTag = "\"v1\"";
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new LruResponseStore(1024), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        RawResponse response = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(sent.get(1).headers().get("If-None-Match"), is("\"v1\""));
+        assertThat(response.body(), is("{\"version\": 1}"));
+    }
+
+    @Test
+    public void it_keeps_the_validators_sent_with_a_not_modified_response() {
+        eTag = "\"v1\"";
+        notModifiedETag = "\"v2\"";
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new LruResponseStore(1024), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        RawResponse response = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(sent.get(2).headers().get("If-None-Match"), is("\"v2\""));
+        assertThat(response.header("ETag"), is("\"v2\""));
+        assertThat(response.body(), is("{\"version\": 1}"));
+    }
+
+    @Test
+    public void it_keeps_the_headers_of_the_stored_body_after_a_not_modified_response() {
+        eTag = "\"v1\"";
+        notModifiedETag = "\"v2\"";
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new LruResponseStore(1024), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        clock.advance(TimeUnit.HOURS.toMillis(1));
+        RawResponse response = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(response.header("Content-Length"), is("14"));
+        assertThat(response.header("ETag"), is("\"v2\""));
+        assertThat(response.body(), is("{\"version\": 1}"));
+    }
+
+    @Test
+    public void it_evicts_the_least_recently_used_responses() {
+        LruResponseStore store = new LruResponseStore(30);
+        CachingYelpClient client = new CachingYelpClient(this::respond, CachePolicy.defaults(), store, clock);
+
+        client.send(request("first")).close();
+        client.send(request("second")).close();
+        client.send(request("first")).close();
+        client.send(request("third")).close();
+
+        assertThat(store.size(), is(2));
+        assertThat(store.get(URI.create("https://api.yelp.com/v3/businesses/second")) == null, is(true));
+    }
+
+    @Test
+    public void it_rebuilds_responses_kept_by_external_stores() {
+        eTag = "\"v1\"";
+        CachingYelpClient client = new CachingYelpClient(
+            this::respond, CachePolicy.defaults(), new CopyingResponseStore(), clock
+        );
+
+        client.send(request("bella-on-the-river-san-antonio")).close();
+        RawResponse cached = client.send(request("bella-on-the-river-san-antonio"));
+
+        assertThat(cached.body(), is("{\"version\": 1}"));
+        assertThat(cached.header("etag"), is("\"v1\""));
+        assertThat(sent.size(), is(1));
+    }
+
+    private RawResponse respond(YelpRequest request) {
+        sent.add(request);
+        String validator = request.headers().get("If-None-Match");
+        Map<String, List<String>> headers = new HashMap<>();
+        if (validator != null && (validator.equals(eTag) || validator.equals(notModifiedETag))) {
+            headers.put("content-length", Collections.singletonList("0"));
+            if (notModifiedETag != null) headers.put("etag", Collections.singletonList(notModifiedETag));
+            return new RawResponse(304, headers, "");
+        }
+
+        String body = String.format("{\"version\": %d}", sent.size());
+        headers.put("Content-Length", Collections.singletonList(String.valueOf(body.length())));
+        if (eTag != null) headers.put("ETag", Collections.singletonList(eTag));
+        return new RawResponse(200, headers, body);
+    }
+
+    private YelpRequest request(String id) {
+        return YelpRequest.get(BUSINESS, URI.create("https://api.yelp.com/v3/businesses/" + id), "token");
+    }
+
+    /**
+     * Keeps copies of the responses, as a store serializing them would
+     */
+    private static class CopyingResponseStore implements ResponseStore {
+        private final Map<URI, CachedResponse> responses = new HashMap<>();
+
+        @Override
+        public CachedResponse get(URI uri) {
+            CachedResponse stored = responses.get(uri);
+            return stored == null ? null : CachedResponse.of(
+                stored.statusCode(),
+                new HashMap<>(stored.headers()),
+                stored.body().clone(),
+                stored.expiresAt()
+            );
+        }
+
+        @Override
+        public void put(URI uri, CachedResponse response) {
+            responses.put(uri, response);
+        }
+
+        @Override
+        public void remove(URI uri) {
+            responses.remove(uri);
+        }
+    }
+
+    private static class MovableClock extends Clock {
+        private long millis = 0;
+
+        void advance(long millis) {
+            this.millis += millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    private final List<YelpRequest> sent = new ArrayList<>();
+    private final MovableClock clock = new MovableClock();
+    private String eTag;
+    private String notModifiedETag;
+}
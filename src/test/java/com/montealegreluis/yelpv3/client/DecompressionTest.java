@@ -0,0 +1,98 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class DecompressionTest {
+    @Test
+    public void it_inflates_a_gzip_body_while_it_is_read() throws IOException {
+        CompressionStatistics statistics = new CompressionStatistics();
+        byte[] compressed = gzip(json);
+
+        InputStream body = Decompression.decode("gzip", new ByteArrayInputStream(compressed), statistics);
+
+        assertThat(read(body), is(json));
+        assertThat(statistics.compressedResponses(), is(1L));
+        assertThat(statistics.compressedBytes(), is((long) compressed.length));
+        assertThat(statistics.decompressedBytes(), is((long) json.getBytes(UTF_8).length));
+        assertThat(statistics.savedBytes(), greaterThan(0L));
+    }
+
+    @Test
+    public void it_inflates_a_deflate_body() throws IOException {
+        CompressionStatistics statistics = new CompressionStatistics();
+
+        InputStream body = Decompression.decode("deflate", new ByteArrayInputStream(deflate(json)), statistics);
+
+        assertThat(read(body), is(json));
+    }
+
+    @Test
+    public void it_recognizes_encodings_regardless_of_the_default_locale() throws IOException {
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            InputStream body = Decompression.decode(
+                "GZIP",
+                new ByteArrayInputStream(gzip(json)),
+                new CompressionStatistics()
+            );
+
+            assertThat(read(body), is(json));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void it_does_not_change_bodies_without_content_encoding() throws IOException {
+        CompressionStatistics statistics = new CompressionStatistics();
+
+        InputStream body = Decompression.decode(null, new ByteArrayInputStream(json.getBytes(UTF_8)), statistics);
+
+        assertThat(read(body), is(json));
+        assertThat(statistics.uncompressedResponses(), is(1L));
+        assertThat(statistics.compressedBytes(), is(0L));
+    }
+
+    private String read(InputStream body) {
+        return new RawResponse(200, Collections.emptyMap(), body, body).body();
+    }
+
+    private byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] deflate(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflate = new DeflaterOutputStream(bytes)) {
+            deflate.write(text.getBytes(UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private final String json = String.join(
+        ",",
+        Collections.nCopies(50, "{\"alias\": \"mexican\", \"title\": \"Mexican\"}")
+    );
+}
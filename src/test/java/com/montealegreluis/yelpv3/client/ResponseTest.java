@@ -0,0 +1,88 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.client;
+
+import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.businesses.Businesses;
+import com.montealegreluis.yelpv3.businesses.Coordinates;
+import com.montealegreluis.yelpv3.businesses.Region;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.parser.Parser;
+import com.montealegreluis.yelpv3.reviews.Review;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class ResponseTest {
+    @Test
+    public void it_parses_the_original_response_only_once() {
+        SearchResponse response = SearchResponse.fromOriginalResponse("{}", parser);
+
+        SearchResult first = response.searchResult();
+        SearchResult second = response.searchResult();
+
+        assertThat(first, sameInstance(second));
+        assertThat(parsed.get(), is(1));
+    }
+
+    @Test
+    public void it_shares_a_single_parsed_result_between_threads() throws Exception {
+        SearchResponse response = SearchResponse.fromOriginalResponse("{}", parser);
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<SearchResult>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) results.add(readers.submit(() -> {
+            start.await();
+            return response.searchResult();
+        }));
+        start.countDown();
+
+        for (Future<SearchResult> result : results)
+            assertThat(result.get(1, TimeUnit.SECONDS), sameInstance(results.get(0).get()));
+        assertThat(parsed.get(), is(1));
+        readers.shutdown();
+    }
+
+    private final AtomicInteger parsed = new AtomicInteger();
+    private final Parser parser = new Parser() {
+        @Override
+        public SearchResult searchResult(String response) {
+            parsed.incrementAndGet();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new SearchResult(0, new Businesses(Collections.emptyList()), Region.withCenter(new Coordinates(0, 0)));
+        }
+
+        @Override
+        public BusinessDetails business(String response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Review> reviews(String response) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AccessToken token(String response) {
+            throw new UnsupportedOperationException();
+        }
+    };
+}
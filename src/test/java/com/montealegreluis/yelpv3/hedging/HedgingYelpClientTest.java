@@ -0,0 +1,118 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.hedging;
+
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpClient;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.AUTHENTICATION;
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HedgingYelpClientTest {
+    @Test
+    public void it_keeps_the_response_of_the_duplicate_if_it_arrives_first() {
+        HedgingYelpClient client = new HedgingYelpClient(this.client, policy.withBudget(1));
+
+        CompletableFuture<RawResponse> response = client.sendAsync(get());
+        waitForAttempts(2);
+        attempts.get(1).complete(new RawResponse(200, Collections.emptyMap(), "{\"hedge\": true}"));
+
+        assertThat(response.join().body(), is("{\"hedge\": true}"));
+        assertThat(attempts.get(0).isCancelled(), is(true));
+        assertThat(client.hedgedRequests(), is(1L));
+    }
+
+    @Test
+    public void it_does_not_send_duplicates_beyond_its_budget() throws Exception {
+        HedgingYelpClient client = new HedgingYelpClient(this.client, policy.withBudget(0));
+
+        CompletableFuture<RawResponse> response = client.sendAsync(get());
+        Thread.sleep(50);
+        attempts.get(0).complete(new RawResponse(200, Collections.emptyMap(), "{}"));
+
+        assertThat(response.join().statusCode(), is(200));
+        assertThat(attempts.size(), is(1));
+    }
+
+    @Test
+    public void it_never_hedges_requests_that_are_not_idempotent() throws Exception {
+        HedgingYelpClient client = new HedgingYelpClient(this.client, policy.withBudget(1));
+
+        client.sendAsync(YelpRequest.post(
+            AUTHENTICATION,
+            URI.create("https://api.yelp.com/oauth2/token"),
+            Collections.emptyMap()
+        ));
+        Thread.sleep(50);
+
+        assertThat(attempts.size(), is(1));
+    }
+
+    @Test
+    public void it_waits_for_the_duplicate_if_the_original_request_fails() {
+        HedgingYelpClient client = new HedgingYelpClient(this.client, policy.withBudget(1));
+
+        CompletableFuture<RawResponse> response = client.sendAsync(get());
+        waitForAttempts(2);
+        attempts.get(0).completeExceptionally(new IllegalStateException());
+        attempts.get(1).complete(new RawResponse(200, Collections.emptyMap(), "{}"));
+
+        assertThat(response.join().statusCode(), is(200));
+    }
+
+    @Test
+    public void it_learns_the_latency_of_requests_that_lost_the_race() throws Exception {
+        HedgingYelpClient client = new HedgingYelpClient(
+            this.client,
+            HedgingPolicy.atPercentile(99).withInitialDelay(10, TimeUnit.MILLISECONDS).withSamples(2).withBudget(1)
+        );
+
+        CompletableFuture<RawResponse> first = client.sendAsync(get());
+        waitForAttempts(2);
+        Thread.sleep(200);
+        attempts.get(1).complete(new RawResponse(200, Collections.emptyMap(), "{}"));
+        first.join();
+        client.sendAsync(get());
+        Thread.sleep(50);
+
+        assertThat(attempts.size(), is(3));
+    }
+
+    private void waitForAttempts(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (attempts.size() < count && System.nanoTime() < deadline) Thread.yield();
+        assertThat(attempts.size(), is(count));
+    }
+
+    private YelpRequest get() {
+        return YelpRequest.get(BUSINESS, URI.create("https://api.yelp.com/v3/businesses/gary-danko"), "token");
+    }
+
+    private final List<CompletableFuture<RawResponse>> attempts = new CopyOnWriteArrayList<>();
+    private final YelpClient client = new YelpClient() {
+        @Override
+        public RawResponse send(YelpRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<RawResponse> sendAsync(YelpRequest request) {
+            CompletableFuture<RawResponse> attempt = new CompletableFuture<>();
+            attempts.add(attempt);
+            return attempt;
+        }
+    };
+    private final HedgingPolicy policy = HedgingPolicy.defaults().withInitialDelay(10, TimeUnit.MILLISECONDS);
+}
@@ -0,0 +1,38 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.jsonparser;
+
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ReviewsParserTest {
+    @Test
+    public void it_attributes_invalid_links_to_their_field() {
+        try {
+            ReviewsParser.parseFrom(new JSONObject(reviews.replace("https://www.yelp.com/biz/gary-danko", "not a link")));
+            fail("Invalid links should not be parsed");
+        } catch (ParsingFailure e) {
+            assertThat(e.field(), is("url"));
+        }
+    }
+
+    @Test
+    public void it_attributes_invalid_user_images_to_their_field() {
+        try {
+            ReviewsParser.parseFrom(new JSONObject(reviews.replace("https://s3-media3.fl.yelpcdn.com/photo/u.jpg", "u.jpg")));
+            fail("Invalid links should not be parsed");
+        } catch (ParsingFailure e) {
+            assertThat(e.field(), is("user.image_url"));
+        }
+    }
+
+    private final String reviews = "{\"reviews\": [{\"rating\": 5, \"text\": \"Great tacos\", " +
+        "\"user\": {\"image_url\": \"https://s3-media3.fl.yelpcdn.com/photo/u.jpg\", \"name\": \"Ana M.\"}, " +
+        "\"time_created\": \"2017-06-01 10:30:00\", \"url\": \"https://www.yelp.com/biz/gary-danko\"}]}";
+}
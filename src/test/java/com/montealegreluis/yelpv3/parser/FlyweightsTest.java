@@ -0,0 +1,61 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import com.montealegreluis.yelpv3.businesses.Business;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.jsonparser.JSONParser;
+import com.montealegreluis.yelpv3.streamingparser.StreamingParser;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FlyweightsTest {
+    @Test
+    public void it_shares_equal_strings() {
+        String city = Flyweights.string(new String("San Antonio"));
+        char[] characters = "in San Antonio".toCharArray();
+
+        assertThat(Flyweights.string(new String("San Antonio")), sameInstance(city));
+        assertThat(Flyweights.string(characters, 3, 11), sameInstance(city));
+    }
+
+    @Test
+    public void it_replaces_values_colliding_in_the_same_slot() {
+        String first = Flyweights.string(new String("Aa"));
+        String colliding = Flyweights.string(new String("BB"));
+
+        assertThat(Flyweights.string(new String("BB")), sameInstance(colliding));
+        assertThat(Flyweights.string(new String("Aa")), not(sameInstance(first)));
+    }
+
+    @Test
+    public void it_shares_repeated_values_between_parsed_businesses() {
+        for (Parser parser : new Parser[]{new JSONParser(), new StreamingParser()}) {
+            SearchResult result = parser.searchResult(searchResult);
+            Business first = result.businesses.get(0);
+            Business second = result.businesses.get(1);
+
+            assertThat(first.categories.get(0), sameInstance(second.categories.get(0)));
+            assertThat(first.transactions.get(0), sameInstance(second.transactions.get(0)));
+            assertThat(first.location.city, sameInstance(second.location.city));
+            assertThat(first.location.displayAddress.get(1), sameInstance(second.location.displayAddress.get(1)));
+        }
+    }
+
+    private String business(String id, String address) {
+        return "{\"id\": \"" + id + "\", \"name\": \"Pizza\", \"image_url\": \"\", \"is_closed\": false, " +
+            "\"url\": \"https://www.yelp.com/biz/" + id + "\", \"review_count\": 1, \"rating\": 4, " +
+            "\"categories\": [{\"alias\": \"pizza\", \"title\": \"Pizza\"}], \"transactions\": [\"delivery\"], " +
+            "\"coordinates\": {\"latitude\": 29.4, \"longitude\": -98.4}, \"phone\": \"\", " +
+            "\"location\": {\"address1\": \"" + address + "\", \"city\": \"San Antonio\", \"zip_code\": \"78205\", " +
+            "\"country\": \"US\", \"state\": \"TX\", \"display_address\": [\"" + address + "\", \"San Antonio, TX 78205\"]}}";
+    }
+
+    private final String searchResult = "{\"total\": 2, \"businesses\": [" +
+        business("pizza-one", "1 Main St") + ", " + business("pizza-two", "2 Main St") +
+        "], \"region\": {\"center\": {\"latitude\": 29.4, \"longitude\": -98.4}}}";
+}
@@ -0,0 +1,59 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.parser;
+
+import com.montealegreluis.yelpv3.jsonparser.JSONParser;
+import com.montealegreluis.yelpv3.reviews.Review;
+import com.montealegreluis.yelpv3.streamingparser.StreamingParser;
+import org.junit.Test;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class ReviewTimesTest {
+    @Test
+    public void it_parses_times_the_same_way_the_formatter_does() {
+        String time = "2016-02-29 23:59:07";
+
+        assertThat(ReviewTimes.parse(time), is(LocalDateTime.parse(time, ReviewTimes.FORMAT)));
+    }
+
+    @Test(expected = DateTimeException.class)
+    public void it_rejects_invalid_dates() {
+        ReviewTimes.parse("2017-02-29 10:00:00");
+    }
+
+    @Test(expected = DateTimeException.class)
+    public void it_rejects_times_in_other_layouts() {
+        ReviewTimes.parse("2017-08-01T10:01:02");
+    }
+
+    @Test
+    public void it_pushes_the_same_reviews_to_a_consumer_with_both_parsers() {
+        List<Review> streamed = new ArrayList<>();
+        List<Review> parsed = new ArrayList<>();
+
+        new StreamingParser().reviews(reviews, streamed::add);
+        new JSONParser().reviews(reviews, parsed::add);
+
+        assertThat(streamed.size(), is(2));
+        assertThat(parsed.size(), is(2));
+        assertThat(streamed.get(1).createdAt, is(LocalDateTime.of(2017, 8, 1, 10, 1, 2)));
+        assertThat(parsed.get(1).createdAt, is(streamed.get(1).createdAt));
+        assertThat(parsed.get(0).url, is(streamed.get(0).url));
+    }
+
+    private final String reviews = "{\"reviews\": [{\"rating\": 5, \"text\": \"Great tacos\", " +
+        "\"user\": {\"image_url\": \"https://s3-media3.fl.yelpcdn.com/photo/u.jpg\", \"name\": \"Ana M.\"}, " +
+        "\"url\": \"https://www.yelp.com/biz/gary-danko?hrid=1\", \"time_created\": \"2016-12-31 23:00:00\"}, " +
+        "{\"rating\": 4, \"text\": \"Good\", " +
+        "\"user\": {\"image_url\": \"https://s3-media3.fl.yelpcdn.com/photo/v.jpg\", \"name\": \"Luis M.\"}, " +
+        "\"url\": \"https://www.yelp.com/biz/gary-danko?hrid=2\", \"time_created\": \"2017-08-01 10:01:02\"}], " +
+        "\"total\": 2}";
+}
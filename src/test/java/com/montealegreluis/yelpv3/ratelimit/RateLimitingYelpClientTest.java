@@ -0,0 +1,144 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.ratelimit;
+
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.Test;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static com.montealegreluis.yelpv3.client.Endpoint.SEARCH;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RateLimitingYelpClientTest {
+    @Test(expected = RateLimitExceeded.class)
+    public void it_fails_fast_once_the_burst_is_used() {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(1).failingFast()
+        );
+
+        client.send(request()).close();
+        client.send(request());
+    }
+
+    @Test
+    public void it_waits_for_a_permit_up_to_the_given_time() {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(20).withRate(BUSINESS, 20, 1).blockingUpTo(1, TimeUnit.SECONDS)
+        );
+
+        long start = System.nanoTime();
+        client.send(request()).close();
+        client.send(request()).close();
+
+        assertThat(System.nanoTime() - start, greaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(40)));
+        assertThat(sent, is(2));
+    }
+
+    @Test
+    public void it_waits_for_a_permit_without_blocking_the_caller() {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(20).withRate(BUSINESS, 20, 1).blockingUpTo(1, TimeUnit.SECONDS)
+        );
+
+        client.sendAsync(request()).join().close();
+        client.sendAsync(request()).join().close();
+
+        assertThat(sent, is(2));
+    }
+
+    @Test
+    public void it_does_not_send_a_delayed_request_once_it_is_cancelled() throws Exception {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(20).withRate(BUSINESS, 20, 1).blockingUpTo(1, TimeUnit.SECONDS)
+        );
+        client.sendAsync(request()).join().close();
+
+        client.sendAsync(request()).cancel(true);
+        Thread.sleep(100);
+
+        assertThat(sent, is(1));
+        client.sendAsync(request()).join().close();
+        assertThat(sent, is(2));
+    }
+
+    @Test
+    public void it_limits_each_endpoint_separately() {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(1).failingFast()
+        );
+
+        client.send(request()).close();
+        client.send(YelpRequest.get(SEARCH, URI.create("https://api.yelp.com/v3/businesses/search"), "token")).close();
+
+        assertThat(sent, is(2));
+    }
+
+    @Test
+    public void it_stops_sending_requests_when_the_daily_quota_is_exhausted() {
+        remaining = "0";
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            this::respond, RateLimitPolicy.perSecond(100), clock
+        );
+        client.send(request()).close();
+
+        try {
+            client.send(request());
+        } catch (RateLimitExceeded e) {
+            assertThat(sent, is(1));
+            return;
+        }
+        throw new AssertionError("Request should have been rejected");
+    }
+
+    @Test
+    public void it_drains_the_bucket_when_yelp_rejects_a_request() {
+        RateLimitingYelpClient client = new RateLimitingYelpClient(
+            request -> { throw new ErrorResponse(429, request.uri().toString(), ""); },
+            RateLimitPolicy.perSecond(1).withRate(BUSINESS, 1, 10).failingFast()
+        );
+        try {
+            client.send(request());
+        } catch (ErrorResponse ignored) {
+        }
+
+        try {
+            client.send(request());
+        } catch (RateLimitExceeded e) {
+            return;
+        }
+        throw new AssertionError("Request should have been rejected");
+    }
+
+    private RawResponse respond(YelpRequest request) {
+        sent++;
+        Map<String, List<String>> headers = new HashMap<>();
+        if (remaining != null) {
+            headers.put("RateLimit-Remaining", Collections.singletonList(remaining));
+            headers.put("RateLimit-ResetTime", Collections.singletonList("2017-05-13T00:00:00+00:00"));
+        }
+        return new RawResponse(200, headers, "{}");
+    }
+
+    private YelpRequest request() {
+        return YelpRequest.get(BUSINESS, URI.create("https://api.yelp.com/v3/businesses/gary-danko"), "token");
+    }
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-05-12T12:00:00Z"), ZoneOffset.UTC);
+    private int sent = 0;
+    private String remaining;
+}
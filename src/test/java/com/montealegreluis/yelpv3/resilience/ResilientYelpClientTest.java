@@ -0,0 +1,242 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.resilience;
+
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.Test;
+
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class ResilientYelpClientTest {
+    @Test
+    public void it_retries_server_errors() {
+        failures = 2;
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        RawResponse response = client.send(request());
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(sent, is(3));
+    }
+
+    @Test
+    public void it_retries_connection_resets() {
+        ResilientYelpClient client = new ResilientYelpClient(request -> {
+            if (++sent == 1) throw TransportFailure.sending(request, new SocketException("Connection reset"));
+            return new RawResponse(200, Collections.emptyMap(), "{}");
+        }, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        assertThat(client.send(request()).statusCode(), is(200));
+        assertThat(sent, is(2));
+    }
+
+    @Test
+    public void it_does_not_retry_permanent_errors() {
+        failures = 1;
+        statusCode = 400;
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        try {
+            client.send(request());
+            fail("Error response was expected");
+        } catch (ErrorResponse e) {
+            assertThat(e.isRetryable(), is(false));
+            assertThat(sent, is(1));
+        }
+    }
+
+    @Test
+    public void it_gives_up_if_yelp_asks_to_wait_too_long() {
+        failures = 1;
+        statusCode = 429;
+        retryAfter = "120";
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        try {
+            client.send(request());
+            fail("Error response was expected");
+        } catch (ErrorResponse e) {
+            assertThat(e.retryAfterMillis(), is(120_000L));
+            assertThat(sent, is(1));
+        }
+    }
+
+    @Test
+    public void it_opens_the_circuit_after_consecutive_failures() {
+        failures = Integer.MAX_VALUE;
+        ResilientYelpClient client = new ResilientYelpClient(
+            this::respond, RetryPolicy.never(), CircuitBreakerPolicy.defaults().withFailureThreshold(2), clock
+        );
+        sendIgnoringErrors(client);
+        sendIgnoringErrors(client);
+
+        try {
+            client.send(request());
+            fail("Circuit should be open");
+        } catch (CircuitOpen e) {
+            assertThat(sent, is(2));
+        }
+    }
+
+    @Test
+    public void it_opens_the_circuit_after_consecutive_requests_run_out_of_time() {
+        ResilientYelpClient client = new ResilientYelpClient(request -> {
+            sent++;
+            while (!request.deadline().isExpired()) Thread.yield();
+            throw DeadlineExceeded.forRequest(request.uri(), new SocketTimeoutException("Read timed out"));
+        }, RetryPolicy.never(), CircuitBreakerPolicy.defaults().withFailureThreshold(2), clock);
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.send(request().withDeadline(Deadline.after(10, TimeUnit.MILLISECONDS)));
+                fail("Deadline should have expired");
+            } catch (DeadlineExceeded ignored) {
+            }
+        }
+
+        try {
+            client.send(request().withDeadline(Deadline.after(10, TimeUnit.MILLISECONDS)));
+            fail("Circuit should be open");
+        } catch (CircuitOpen e) {
+            assertThat(sent, is(2));
+        }
+    }
+
+    @Test
+    public void it_does_not_count_interrupted_callers_as_failures() {
+        ResilientYelpClient client = new ResilientYelpClient(request -> {
+            if (++sent <= 2) throw DeadlineExceeded.interrupted(request.uri(), new InterruptedException());
+            return new RawResponse(200, Collections.emptyMap(), "{}");
+        }, RetryPolicy.never(), CircuitBreakerPolicy.defaults().withFailureThreshold(2), clock);
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.send(request());
+            } catch (DeadlineExceeded ignored) {
+            }
+        }
+
+        assertThat(client.send(request()).statusCode(), is(200));
+    }
+
+    @Test
+    public void it_closes_the_circuit_once_a_trial_request_succeeds() {
+        failures = 2;
+        ResilientYelpClient client = new ResilientYelpClient(
+            this::respond, RetryPolicy.never(), CircuitBreakerPolicy.defaults().withFailureThreshold(2), clock
+        );
+        sendIgnoringErrors(client);
+        sendIgnoringErrors(client);
+        clock.advance(TimeUnit.SECONDS.toMillis(30));
+
+        client.send(request()).close();
+        client.send(request()).close();
+
+        assertThat(sent, is(4));
+    }
+
+    @Test
+    public void it_retries_without_blocking_the_caller() {
+        failures = 2;
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        RawResponse response = client.sendAsync(request()).join();
+
+        assertThat(response.statusCode(), is(200));
+        assertThat(sent, is(3));
+    }
+
+    @Test
+    public void it_reports_the_last_failure_when_no_attempts_are_left() {
+        failures = Integer.MAX_VALUE;
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        try {
+            client.sendAsync(request()).join();
+            fail("Error response was expected");
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(ErrorResponse.class));
+            assertThat(sent, is(3));
+        }
+    }
+
+    @Test
+    public void it_does_not_retry_if_the_deadline_expires_before_the_next_attempt() {
+        failures = 1;
+        retryAfter = "2";
+        ResilientYelpClient client = new ResilientYelpClient(this::respond, retries, CircuitBreakerPolicy.defaults(), clock);
+
+        try {
+            client.send(request().withDeadline(Deadline.after(100, TimeUnit.MILLISECONDS)));
+            fail("Error response was expected");
+        } catch (ErrorResponse e) {
+            assertThat(sent, is(1));
+        }
+    }
+
+    private void sendIgnoringErrors(ResilientYelpClient client) {
+        try {
+            client.send(request());
+        } catch (ErrorResponse ignored) {
+        }
+    }
+
+    private synchronized RawResponse respond(YelpRequest request) {
+        sent++;
+        if (sent <= failures) throw new ErrorResponse(statusCode, request.uri().toString(), "", retryAfter);
+        return new RawResponse(200, Collections.emptyMap(), "{}");
+    }
+
+    private YelpRequest request() {
+        return YelpRequest.get(BUSINESS, URI.create("https://api.yelp.com/v3/businesses/gary-danko"), "token");
+    }
+
+    private static class MovableClock extends Clock {
+        private long millis = 0;
+
+        void advance(long millis) {
+            this.millis += millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+    }
+
+    private final RetryPolicy retries = RetryPolicy.defaults().withBackoff(1, 5, TimeUnit.MILLISECONDS);
+    private final MovableClock clock = new MovableClock();
+    private int sent = 0;
+    private int failures = 0;
+    private int statusCode = 503;
+    private String retryAfter;
+}
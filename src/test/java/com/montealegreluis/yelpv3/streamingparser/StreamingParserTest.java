@@ -0,0 +1,304 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.streamingparser;
+
+import com.montealegreluis.yelpv3.businesses.Business;
+import com.montealegreluis.yelpv3.businesses.BusinessDetails;
+import com.montealegreluis.yelpv3.businesses.BusinessField;
+import com.montealegreluis.yelpv3.businesses.BusinessProjection;
+import com.montealegreluis.yelpv3.businesses.PricingLevel;
+import com.montealegreluis.yelpv3.businesses.SearchResult;
+import com.montealegreluis.yelpv3.jsonparser.JSONParser;
+import com.montealegreluis.yelpv3.parser.ParsingErrors;
+import com.montealegreluis.yelpv3.parser.ParsingFailure;
+import com.montealegreluis.yelpv3.reviews.Review;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class StreamingParserTest {
+    @Test
+    public void it_parses_the_same_search_result_as_the_dom_parser() {
+        SearchResult expected = new JSONParser().searchResult(searchResult);
+
+        SearchResult result = parser.searchResult(searchResult);
+
+        assertThat(result.total, is(expected.total));
+        assertThat(result.region.center.latitude, is(expected.region.center.latitude));
+        assertThat(result.businesses.size(), is(2));
+        for (int i = 0; i < result.businesses.size(); i++) {
+            Business business = result.businesses.get(i);
+            Business expectedBusiness = expected.businesses.get(i);
+            assertThat(business.id, is(expectedBusiness.id));
+            assertThat(business.name, is(expectedBusiness.name));
+            assertThat(business.rating, is(expectedBusiness.rating));
+            assertThat(business.pricingLevel, is(expectedBusiness.pricingLevel));
+            assertThat(business.reviewCount, is(expectedBusiness.reviewCount));
+            assertThat(business.url, is(expectedBusiness.url));
+            assertThat(business.image, is(expectedBusiness.image));
+            assertThat(business.coordinates.longitude, is(expectedBusiness.coordinates.longitude));
+            assertThat(business.location.address1, is(expectedBusiness.location.address1));
+            assertThat(business.location.displayAddress, is(expectedBusiness.location.displayAddress));
+            assertThat(business.categories.size(), is(expectedBusiness.categories.size()));
+            assertThat(business.transactions.size(), is(expectedBusiness.transactions.size()));
+        }
+    }
+
+    @Test
+    public void it_parses_business_details_with_hours_and_photos() {
+        BusinessDetails business = parser.business(details);
+
+        assertThat(business.name, is("Café \"Olé\" \u2615"));
+        assertThat(business.pricingLevel, is(PricingLevel.MODERATE));
+        assertThat(business.isClaimed, is(true));
+        assertThat(business.photos.size(), is(2));
+        assertThat(business.isOpenNow(), is(false));
+        assertThat(business.schedule.hoursFor(DayOfWeek.MONDAY).size(), is(2));
+        assertThat(business.schedule.hoursFor(DayOfWeek.MONDAY).get(1).end, is(LocalTime.of(22, 0)));
+        assertThat(business.distance, is(nullValue()));
+    }
+
+    @Test
+    public void it_leaves_null_and_missing_lists_empty_like_the_dom_parser() {
+        String nullMembers = details
+            .replace("\"display_address\": [\"1 Main St\"]", "\"display_address\": null")
+            .replaceAll("\"photos\": \\[[^]]*]", "\"photos\": null");
+        String missingMembers = details
+            .replace("\"display_address\": [\"1 Main St\"], ", "")
+            .replaceAll("\"photos\": \\[[^]]*], ", "");
+
+        for (String json : new String[]{nullMembers, missingMembers}) {
+            BusinessDetails expected = new JSONParser().business(json);
+            BusinessDetails business = parser.business(json);
+
+            assertThat(expected.photos, is(nullValue()));
+            assertThat(business.photos, is(expected.photos));
+            assertThat(expected.location.displayAddress, is(nullValue()));
+            assertThat(business.location.displayAddress, is(expected.location.displayAddress));
+        }
+    }
+
+    @Test
+    public void it_reads_documents_larger_than_its_buffer_from_a_stream() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) text.append("Great tacos \\n ");
+        String reviews = "{\"reviews\": [{\"rating\": 5, \"text\": \"" + text + "\", " +
+            "\"user\": {\"image_url\": \"https://s3-media3.fl.yelpcdn.com/photo/u.jpg\", \"name\": \"Ana M.\"}, " +
+            "\"url\": \"https://www.yelp.com/biz/gary-danko\", \"time_created\": \"2017-08-01 10:01:02\"}], " +
+            "\"total\": 1}";
+
+        List<Review> parsed = parser.reviews(new ByteArrayInputStream(reviews.getBytes(UTF_8)));
+
+        assertThat(parsed.get(0).text.length(), is(2000 * "Great tacos \n ".length()));
+        assertThat(parsed.get(0).user.name, is("Ana M."));
+    }
+
+    @Test
+    public void it_parses_utf8_from_a_direct_buffer_without_moving_it() {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < 3000; i++) name.append("Caf\u00e9 \u2615 ");
+        byte[] json = details.replace("Caf\\u00e9 \\\"Ol\u00e9\\\" \\u2615", name).getBytes(UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(json.length + 3);
+        buffer.put(new byte[]{'x', 'y', 'z'}).put(json).flip().position(3);
+
+        BusinessDetails business = parser.business(buffer);
+
+        assertThat(business.name, is(name.toString()));
+        assertThat(buffer.position(), is(3));
+    }
+
+    @Test
+    public void it_parses_the_same_values_from_bytes_with_both_parsers() {
+        byte[] json = details.getBytes(UTF_8);
+
+        assertThat(parser.business(json).name, is(new JSONParser().business(ByteBuffer.wrap(json)).name));
+    }
+
+    @Test
+    public void it_parses_tokens_from_bytes_with_both_parsers() {
+        byte[] json = "{\"access_token\": \"token\", \"token_type\": \"Bearer\", \"expires_in\": 3600}".getBytes(UTF_8);
+
+        assertThat(parser.token(json).accessToken(), is("token"));
+        assertThat(new JSONParser().token(ByteBuffer.wrap(json)).accessToken(), is("token"));
+    }
+
+    @Test
+    public void it_shares_the_projected_fields_between_the_businesses_of_a_response() {
+        Set<BusinessField> fields = EnumSet.of(BusinessField.ID, BusinessField.RATING);
+
+        for (List<BusinessProjection> businesses : Arrays.asList(
+            parser.businesses(searchResult, fields),
+            new JSONParser().businesses(searchResult, fields)
+        )) {
+            assertThat(businesses.get(0).fields, is(fields));
+            assertThat(businesses.get(1).fields, sameInstance(businesses.get(0).fields));
+        }
+    }
+
+    @Test
+    public void it_fails_to_project_a_required_field_that_is_missing() {
+        try {
+            parser.businesses(searchResult.replace("\"review_count\": 1, ", ""), EnumSet.of(BusinessField.REVIEW_COUNT));
+            fail("A business without a review count should not be projected");
+        } catch (ParsingFailure e) {
+            assertThat(e.field(), is("review_count"));
+        }
+    }
+
+    @Test
+    public void it_projects_only_the_requested_fields() {
+        Set<BusinessField> fields = EnumSet.of(BusinessField.ID, BusinessField.COORDINATES, BusinessField.RATING);
+        List<BusinessProjection> expected = new JSONParser().businesses(searchResult, fields);
+
+        List<BusinessProjection> businesses = parser.businesses(searchResult, fields);
+
+        assertThat(businesses.size(), is(2));
+        for (int i = 0; i < businesses.size(); i++) {
+            assertThat(businesses.get(i).id, is(expected.get(i).id));
+            assertThat(businesses.get(i).rating, is(expected.get(i).rating));
+            assertThat(businesses.get(i).coordinates.latitude, is(expected.get(i).coordinates.latitude));
+            assertThat(businesses.get(i).name, is(nullValue()));
+            assertThat(businesses.get(i).has(BusinessField.NAME), is(false));
+        }
+    }
+
+    @Test
+    public void it_skips_values_that_are_not_projected() {
+        String result = "{\"businesses\": [{\"id\": \"gary-danko\", \"url\": \"not a URL\", " +
+            "\"location\": {\"city\": null}, \"name\": \"Gary Danko\"}]}";
+
+        List<BusinessProjection> businesses = parser.businesses(result, EnumSet.of(BusinessField.NAME));
+
+        assertThat(businesses.get(0).name, is("Gary Danko"));
+    }
+
+    @Test
+    public void it_reports_where_parsing_failed() {
+        try {
+            parser.searchResult("{\"total\": 3, \"businesses\": [{\"rating\": tru}]}");
+            fail("Malformed JSON should not be parsed");
+        } catch (ParsingFailure e) {
+            assertThat(e.getMessage(), containsString("character"));
+        }
+    }
+
+    @Test(expected = ParsingFailure.class)
+    public void it_fails_on_unicode_escapes_with_invalid_digits() {
+        parser.business(details.replace("\\u2615", "\\u12G4"));
+    }
+
+    @Test
+    public void it_fails_on_numbers_that_do_not_follow_the_json_grammar() {
+        for (String number : Arrays.asList("-", "1.", ".5", "1e", "1e+", "1-2", "--1", "1.2.3")) {
+            try {
+                parser.searchResult(searchResult.replace("\"total\": 8228", "\"total\": " + number));
+                fail(String.format("%s is not a valid number", number));
+            } catch (ParsingFailure e) {
+                assertThat(e.getMessage(), containsString("invalid number"));
+            }
+        }
+    }
+
+    @Test
+    public void it_skips_the_businesses_it_cannot_read_when_lenient() {
+        ParsingErrors errors = new ParsingErrors();
+        String page = searchResult.replace(
+            "{\"id\": \"mi-taco-2-converse\"",
+            "{\"id\": \"broken\", \"location\": {\"city\": [\"]}\", {\"a\": [1]}]}, \"name\": \"Broken\"}, " +
+                "{\"id\": \"mi-taco-2-converse\""
+        );
+
+        SearchResult result = StreamingParser.lenient(errors).searchResult(page);
+
+        assertThat(result.businesses.size(), is(2));
+        assertThat(result.businesses.get(1).id, is("mi-taco-2-converse"));
+        assertThat(errors.skippedEntries(), is(1L));
+        assertThat(errors.errorsIn("location"), is(1L));
+        assertThat(errors.lastFailure().getMessage(), containsString("location"));
+        assertThat(errors.lastFailure().getStackTrace().length, is(0));
+    }
+
+    @Test
+    public void it_skips_the_same_businesses_as_the_lenient_dom_parser() {
+        ParsingErrors errors = new ParsingErrors();
+        String page = searchResult.replace("\"rating\": 5,", "\"rating\": \"five\",");
+
+        SearchResult result = JSONParser.lenient(errors).searchResult(page);
+
+        assertThat(result.businesses.size(), is(1));
+        assertThat(errors.errorsIn("rating"), is(1L));
+        assertThat(StreamingParser.lenient(errors).searchResult(page).businesses.size(), is(1));
+        assertThat(errors.errorsIn("rating"), is(2L));
+    }
+
+    @Test
+    public void it_leaves_optional_values_it_cannot_read_empty_when_lenient() {
+        ParsingErrors errors = new ParsingErrors();
+        String broken = details
+            .replace("\"price\": \"$$\"", "\"price\": \"$$$$$\"")
+            .replace("\"start\": \"1700\"", "\"start\": \"2500\"");
+
+        BusinessDetails business = StreamingParser.lenient(errors).business(broken);
+
+        assertThat(business.pricingLevel, is(PricingLevel.NONE));
+        assertThat(business.schedule, is(nullValue()));
+        assertThat(business.photos.size(), is(2));
+        assertThat(errors.emptyValues(), is(2L));
+        assertThat(errors.errorsIn("price"), is(1L));
+        assertThat(errors.errorsIn("hours"), is(1L));
+        assertThat(errors.skippedEntries(), is(0L));
+    }
+
+    @Test(expected = ParsingFailure.class)
+    public void it_fails_on_malformed_documents_even_when_lenient() {
+        StreamingParser.lenient(new ParsingErrors())
+            .searchResult("{\"total\": 3, \"businesses\": [{\"rating\": tru}]}");
+    }
+
+    private final StreamingParser parser = new StreamingParser();
+    private final String searchResult = "{\"businesses\": [{\"id\": \"gary-danko-san-francisco\", " +
+        "\"alias\": \"gary-danko-san-francisco\", \"name\": \"Gary Danko\", " +
+        "\"image_url\": \"https://s3-media3.fl.yelpcdn.com/bphoto/eyYUz3Xl7NtcJeN7x7SQwg/o.jpg\", " +
+        "\"is_closed\": false, \"url\": \"https://www.yelp.com/biz/gary-danko-san-francisco\", " +
+        "\"review_count\": 5296, \"categories\": [{\"alias\": \"newamerican\", \"title\": \"American (New)\"}, " +
+        "{\"alias\": \"french\", \"title\": \"French\"}], \"rating\": 4.5, " +
+        "\"coordinates\": {\"latitude\": 37.80587, \"longitude\": -122.42058}, \"transactions\": [], " +
+        "\"price\": \"$$$$\", \"location\": {\"address1\": \"800 N Point St\", \"address2\": \"\", " +
+        "\"address3\": \"\", \"city\": \"San Francisco\", \"zip_code\": \"94109\", \"country\": \"US\", " +
+        "\"state\": \"CA\", \"display_address\": [\"800 N Point St\", \"San Francisco, CA 94109\"]}, " +
+        "\"phone\": \"+14157492060\", \"display_phone\": \"(415) 749-2060\", \"distance\": 1.2e3}, " +
+        "{\"id\": \"mi-taco-2-converse\", \"name\": \"Mi Taco #2\", \"image_url\": \"\", \"is_closed\": false, " +
+        "\"url\": \"https://www.yelp.com/biz/mi-taco-2-converse\", \"review_count\": 1, \"categories\": [], " +
+        "\"rating\": 5, \"coordinates\": {\"latitude\": null, \"longitude\": -98.29814}, " +
+        "\"transactions\": [\"pickup\", \"delivery\"], \"location\": {\"address1\": null, \"city\": \"Converse\", " +
+        "\"zip_code\": \"78109\", \"country\": \"US\", \"state\": \"TX\", " +
+        "\"display_address\": [\"Converse, TX 78109\"]}, \"phone\": \"\", \"distance\": 19366.343726119998}], " +
+        "\"total\": 8228, \"region\": {\"center\": {\"longitude\": -122.4, \"latitude\": 37.78}}}";
+    private final String details = "{\"id\": \"cafe-ole\", \"name\": \"Caf\\u00e9 \\\"Ol\u00e9\\\" \\u2615\", " +
+        "\"image_url\": \"https://s3-media3.fl.yelpcdn.com/bphoto/o.jpg\", \"is_claimed\": true, " +
+        "\"is_closed\": false, \"url\": \"https://www.yelp.com/biz/cafe-ole\", \"phone\": \"+14157492060\", " +
+        "\"review_count\": 12, \"categories\": [{\"alias\": \"cafes\", \"title\": \"Cafes\"}], \"rating\": 4, " +
+        "\"location\": {\"address1\": \"1 Main St\", \"city\": \"San Antonio\", \"zip_code\": \"78205\", " +
+        "\"country\": \"US\", \"state\": \"TX\", \"display_address\": [\"1 Main St\"], \"cross_streets\": \"\"}, " +
+        "\"coordinates\": {\"latitude\": 29.4, \"longitude\": -98.4}, " +
+        "\"photos\": [\"https://s3-media2.fl.yelpcdn.com/bphoto/1.jpg\", \"https://s3-media2.fl.yelpcdn.com/bphoto/2.jpg\"], " +
+        "\"price\": \"$$\", \"hours\": [{\"open\": [{\"is_overnight\": false, \"start\": \"1100\", \"end\": \"1500\", \"day\": 0}, " +
+        "{\"is_overnight\": false, \"start\": \"1700\", \"end\": \"2200\", \"day\": 0}], " +
+        "\"hours_type\": \"REGULAR\", \"is_open_now\": false}], \"transactions\": [], \"special_hours\": [{}]}";
+}
@@ -0,0 +1,62 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.tokens;
+
+import com.montealegreluis.yelpv3.client.AccessToken;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class FileTokenStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void it_loads_a_saved_token() {
+        FileTokenStore store = new FileTokenStore(folder.getRoot().toPath().resolve("token.properties"));
+
+        store.save(AccessToken.fromValues("token", "Bearer", 1494547200L));
+        AccessToken token = store.load();
+
+        assertThat(token.accessToken(), is("token"));
+        assertThat(token.tokenType(), is("Bearer"));
+        assertThat(token.expiresOn(), is(1494547200L));
+    }
+
+    @Test
+    public void it_replaces_the_previous_token() {
+        FileTokenStore store = new FileTokenStore(folder.getRoot().toPath().resolve("token.properties"));
+
+        store.save(AccessToken.fromValues("old-token", "Bearer", 1494547200L));
+        store.save(AccessToken.fromValues("new-token", "Bearer", 1510099200L));
+
+        assertThat(store.load().accessToken(), is("new-token"));
+        File[] files = folder.getRoot().listFiles();
+        assertThat(files == null ? 0 : files.length, is(1));
+    }
+
+    @Test
+    public void it_has_no_token_if_nothing_was_saved() {
+        FileTokenStore store = new FileTokenStore(folder.getRoot().toPath().resolve("token.properties"));
+
+        assertThat(store.load(), is(nullValue()));
+    }
+
+    @Test(expected = TokenNotStored.class)
+    public void it_rejects_corrupt_files() throws IOException {
+        Path path = folder.getRoot().toPath().resolve("token.properties");
+        Files.write(path, "expires_on=tomorrow".getBytes("UTF-8"));
+
+        new FileTokenStore(path).load();
+    }
+}
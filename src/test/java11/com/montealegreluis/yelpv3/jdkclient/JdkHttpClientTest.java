@@ -0,0 +1,268 @@
+/*
+ * This source file is subject to the license that is bundled with this package in the file LICENSE.
+ */
+package com.montealegreluis.yelpv3.jdkclient;
+
+import com.montealegreluis.yelpv3.LocalServer;
+import com.montealegreluis.yelpv3.client.Deadline;
+import com.montealegreluis.yelpv3.client.DeadlineExceeded;
+import com.montealegreluis.yelpv3.client.ErrorResponse;
+import com.montealegreluis.yelpv3.client.RawResponse;
+import com.montealegreluis.yelpv3.client.TransportFailure;
+import com.montealegreluis.yelpv3.client.YelpRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.montealegreluis.yelpv3.LocalServer.respond;
+import static com.montealegreluis.yelpv3.client.Endpoint.BUSINESS;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public class JdkHttpClientTest {
+    @Before
+    public void startServer() throws IOException {
+        server = LocalServer
+            .start()
+            .on("/v3/businesses/gary-danko", exchange -> respond(exchange, 200, json))
+            .on("/v3/businesses/unknown", exchange -> respond(exchange, 404, "{}"))
+            .on("/v3/businesses/compressed", exchange -> {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                respond(exchange, 200, gzip(json));
+            })
+            .on("/v3/businesses/slow", exchange -> {
+                await(release);
+                respond(exchange, 200, "{}");
+            })
+            .on("/v3/businesses/slow-body", exchange -> {
+                exchange.sendResponseHeaders(200, 0);
+                OutputStream body = exchange.getResponseBody();
+                body.write("{\"id\": ".getBytes(UTF_8));
+                body.flush();
+                await(release);
+                body.close();
+            })
+        ;
+    }
+
+    @After
+    public void stopServer() {
+        release.countDown();
+        server.close();
+    }
+
+    @Test
+    public void it_streams_the_response_body() {
+        try (RawResponse response = client.send(request("/v3/businesses/gary-danko"))) {
+            assertThat(response.statusCode(), is(200));
+            assertThat(response.body(), is(json));
+        }
+    }
+
+    @Test
+    public void it_reports_unexpected_status_codes() {
+        try {
+            client.send(request("/v3/businesses/unknown"));
+            fail("An ErrorResponse was expected");
+        } catch (ErrorResponse e) {
+            assertThat(e.statusCode(), is(404));
+        }
+    }
+
+    @Test
+    public void it_inflates_compressed_bodies() {
+        try (RawResponse response = client.send(request("/v3/businesses/compressed"))) {
+            assertThat(response.body(), is(json));
+            assertThat(client.compressionStatistics().compressedResponses(), is(1L));
+        }
+    }
+
+    @Test
+    public void it_closes_the_body_once_the_deadline_expires() {
+        RawResponse response = client.send(
+            request("/v3/businesses/slow-body").withDeadline(Deadline.after(200, TimeUnit.MILLISECONDS))
+        );
+        long start = System.nanoTime();
+
+        try {
+            response.body();
+            fail("Reading the body should fail once the deadline expires");
+        } catch (RuntimeException e) {
+            assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(2)));
+        }
+    }
+
+    @Test
+    public void it_fails_asynchronous_requests_once_the_deadline_expires() throws Exception {
+        YelpRequest request = request("/v3/businesses/slow-body").withDeadline(Deadline.after(200, TimeUnit.MILLISECONDS));
+
+        try {
+            client.sendAsync(request).get(2, TimeUnit.SECONDS);
+            fail("Deadline should have expired");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(DeadlineExceeded.class));
+        }
+    }
+
+    @Test
+    public void it_times_out_requests_without_a_deadline() {
+        JdkHttpClient client = new JdkHttpClient(HttpClient.newHttpClient(), Duration.ofMillis(200));
+
+        try {
+            client.send(request("/v3/businesses/slow"));
+            fail("Request should have timed out");
+        } catch (TransportFailure e) {
+            assertThat(e.isRetryable(), is(true));
+        }
+    }
+
+    @Test
+    public void it_cancels_the_exchange_when_the_future_is_cancelled() throws Exception {
+        RecordingHttpClient recording = new RecordingHttpClient(HttpClient.newHttpClient());
+        JdkHttpClient client = new JdkHttpClient(recording);
+
+        client.sendAsync(request("/v3/businesses/slow")).cancel(true);
+
+        try {
+            recording.exchange.get(2, TimeUnit.SECONDS);
+            fail("The exchange should have been cancelled");
+        } catch (CancellationException e) {
+            // The future was cancelled before the exchange noticed
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(CancellationException.class));
+        }
+    }
+
+    private YelpRequest request(String path) {
+        return YelpRequest.get(BUSINESS, server.uri(path), "token");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Keeps the future of the last exchange, to check whether it was cancelled
+     */
+    private static class RecordingHttpClient extends HttpClient {
+        private final HttpClient client;
+        private CompletableFuture<?> exchange;
+
+        private RecordingHttpClient(HttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            HttpRequest request,
+            HttpResponse.BodyHandler<T> handler
+        ) {
+            CompletableFuture<HttpResponse<T>> exchange = client.sendAsync(request, handler);
+            this.exchange = exchange;
+            return exchange;
+        }
+
+        @Override
+        public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+            HttpRequest request,
+            HttpResponse.BodyHandler<T> handler,
+            HttpResponse.PushPromiseHandler<T> pushPromiseHandler
+        ) {
+            return sendAsync(request, handler);
+        }
+
+        @Override
+        public <T> HttpResponse<T> send(
+            HttpRequest request,
+            HttpResponse.BodyHandler<T> handler
+        ) throws IOException, InterruptedException {
+            return client.send(request, handler);
+        }
+
+        @Override
+        public Optional<CookieHandler> cookieHandler() {
+            return client.cookieHandler();
+        }
+
+        @Override
+        public Optional<Duration> connectTimeout() {
+            return client.connectTimeout();
+        }
+
+        @Override
+        public Redirect followRedirects() {
+            return client.followRedirects();
+        }
+
+        @Override
+        public Optional<ProxySelector> proxy() {
+            return client.proxy();
+        }
+
+        @Override
+        public SSLContext sslContext() {
+            return client.sslContext();
+        }
+
+        @Override
+        public SSLParameters sslParameters() {
+            return client.sslParameters();
+        }
+
+        @Override
+        public Optional<Authenticator> authenticator() {
+            return client.authenticator();
+        }
+
+        @Override
+        public Version version() {
+            return client.version();
+        }
+
+        @Override
+        public Optional<Executor> executor() {
+            return client.executor();
+        }
+    }
+
+    private final String json = "{\"id\": \"gary-danko\"}";
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final JdkHttpClient client = JdkHttpClient.http2();
+    private LocalServer server;
+}